@@ -0,0 +1,83 @@
+package dataaccess;
+
+import org.openjdk.jmh.annotations.*;
+import server.VirtualThreadPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures a burst of requests that each wait on the database, run on the
+ * server's virtual thread pool. Every request borrows a pooled connection and
+ * runs a query the database takes a couple of milliseconds to answer, so the
+ * numbers show how many queries are in flight at once rather than how fast
+ * the server's own code is.
+ * <p>
+ * A JDBC driver that blocks on its socket inside {@code synchronized} keeps
+ * each waiting virtual thread on its carrier, so no more queries run at once
+ * than there are cores. The fork traces any such pinning to the output.
+ * Needs a running database and a db.properties on the classpath, as the
+ * server does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class DatabaseLoadBenchmark {
+    @Param({"200"})
+    public int requests;
+
+    @Param({"16", "10000"})
+    public int maxConcurrency;
+
+    private VirtualThreadPool pool;
+
+    @Setup
+    public void setUp() throws Exception {
+        DatabaseManager.createDatabase();
+        pool = new VirtualThreadPool(maxConcurrency);
+        pool.start();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        pool.stop();
+    }
+
+    @Benchmark
+    public int burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(requests);
+        AtomicInteger failed = new AtomicInteger();
+        for (int i = 0; i < requests; i++) {
+            pool.execute(() -> {
+                try {
+                    query();
+                } catch (DataAccessException | SQLException e) {
+                    failed.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        if (failed.get() > 0) {
+            throw new IllegalStateException(failed.get() + " of " + requests + " queries failed");
+        }
+        return requests;
+    }
+
+    private static void query() throws DataAccessException, SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement statement = conn.prepareStatement("SELECT SLEEP(0.002)");
+             ResultSet result = statement.executeQuery()) {
+            result.next();
+        }
+    }
+}
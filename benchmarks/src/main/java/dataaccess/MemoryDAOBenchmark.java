@@ -0,0 +1,73 @@
+package dataaccess;
+
+import chess.ChessGame;
+import model.AuthData;
+import model.GameData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryDAOBenchmark {
+    @Param({"1000"})
+    public int size;
+
+    private MemoryGameDAO gameDAO;
+    private MemoryAuthDAO authDAO;
+    private String[] authTokens;
+    private GameData[] games;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        gameDAO = new MemoryGameDAO();
+        authDAO = new MemoryAuthDAO();
+        authTokens = new String[size];
+        games = new GameData[size];
+        for (int i = 0; i < size; i++) {
+            int gameID = gameDAO.addGame(new GameData(0, "white" + i, "black" + i, "Game " + i, new ChessGame()));
+            games[i] = gameDAO.getGame(gameID);
+            authTokens[i] = UUID.randomUUID().toString();
+            authDAO.addAuth(new AuthData(authTokens[i], "user" + i));
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % size;
+        return next;
+    }
+
+    @Benchmark
+    public GameData getGame() {
+        return gameDAO.getGame(games[nextIndex()].gameID());
+    }
+
+    @Benchmark
+    public void updateGame() {
+        gameDAO.updateGame(games[nextIndex()]);
+    }
+
+    @Benchmark
+    public GameData[] listGames() {
+        return gameDAO.listGames();
+    }
+
+    @Benchmark
+    public AuthData getAuth() {
+        return authDAO.getAuth(authTokens[nextIndex()]);
+    }
+
+    @Benchmark
+    public AuthData addAndDeleteAuth() {
+        AuthData auth = new AuthData(UUID.randomUUID().toString(), "benchmarkUser");
+        authDAO.addAuth(auth);
+        authDAO.deleteAuth(auth.authToken());
+        return auth;
+    }
+}
@@ -0,0 +1,59 @@
+package model;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private final Gson serializer = new Gson();
+    private ChessGame game;
+    private GameData gameData;
+    private String gameJson;
+    private String gameDataJson;
+
+    @Setup
+    public void setUp() {
+        game = new ChessGame();
+        gameData = new GameData(1, "whitePlayer", "blackPlayer", "Benchmark Game", game);
+        gameJson = serializer.toJson(game);
+        gameDataJson = serializer.toJson(gameData);
+    }
+
+    @Benchmark
+    public String serializeChessGame() {
+        return serializer.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame deserializeChessGame() {
+        return serializer.fromJson(gameJson, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame roundTripChessGame() {
+        return serializer.fromJson(serializer.toJson(game), ChessGame.class);
+    }
+
+    @Benchmark
+    public String serializeGameData() {
+        return serializer.toJson(gameData);
+    }
+
+    @Benchmark
+    public GameData deserializeGameData() {
+        return serializer.fromJson(gameDataJson, GameData.class);
+    }
+
+    @Benchmark
+    public GameData roundTripGameDataWithNewGson() {
+        return new Gson().fromJson(new Gson().toJson(gameData), GameData.class);
+    }
+}
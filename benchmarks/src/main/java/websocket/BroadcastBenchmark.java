@@ -0,0 +1,71 @@
+package websocket;
+
+import chess.ChessGame;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.openjdk.jmh.annotations.*;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.NotificationMessage;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures fanning one message out to every connection in a game. Sessions are
+ * stand-ins that accept and drop whatever is sent to them, so the numbers cover
+ * the server's own work and none of the network.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+    private static final int GAME_ID = 1;
+
+    @Param({"2", "20", "200"})
+    public int connectionCount;
+
+    private ConnectionManager connections;
+    private LoadGameMessage loadGame;
+    private NotificationMessage notification;
+
+    @Setup
+    public void setUp() {
+        connections = new ConnectionManager();
+        for (int i = 0; i < connectionCount; i++) {
+            connections.add(GAME_ID, "token" + i, openSession());
+        }
+        loadGame = new LoadGameMessage(new ChessGame());
+        notification = new NotificationMessage("player made the following move: e2 -> e4");
+    }
+
+    @Benchmark
+    public void broadcastLoadGame() {
+        connections.broadcast(GAME_ID, "token0", loadGame);
+    }
+
+    @Benchmark
+    public void broadcastNotification() {
+        connections.broadcast(GAME_ID, "token0", notification);
+    }
+
+    private static Session openSession() {
+        ClassLoader loader = BroadcastBenchmark.class.getClassLoader();
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(loader, new Class<?>[]{RemoteEndpoint.class},
+                (proxy, method, args) -> {
+                    if (args != null && args.length == 2 && args[1] instanceof WriteCallback callback) {
+                        callback.writeSuccess();
+                    }
+                    return null;
+                });
+        return (Session) Proxy.newProxyInstance(loader, new Class<?>[]{Session.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "isOpen" -> true;
+                    case "getRemote" -> remote;
+                    default -> null;
+                });
+    }
+}
@@ -5,13 +5,14 @@ import chess.ChessMove;
 import chess.ChessPiece;
 import chess.ChessPosition;
 import model.AuthData;
-import model.GameData;
+import model.GameSummary;
 import model.UserData;
 import request.CreateGameRequest;
 import request.JoinGameRequest;
 import request.LoginRequest;
 import websocket.NotificationHandler;
 import websocket.WebSocketFacade;
+import websocket.messages.MoveMadeMessage;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -115,14 +116,14 @@ public class ChessClient {
 
     public String list() throws ClientException {
         assertLoggedIn();
-        GameData[] games = server.listGames(user.authToken());
-        updateGameMap();
+        GameSummary[] games = server.listGames(user.authToken());
+        updateGameMap(games);
         if (games.length == 0) {
             return "No existing games!";
         }
         StringBuilder result = new StringBuilder();
         int i = 1;
-        for (GameData game : games) {
+        for (GameSummary game : games) {
             String whiteUsername = game.whiteUsername();
             String blackUsername = game.blackUsername();
             if (whiteUsername == null) {
@@ -151,7 +152,7 @@ public class ChessClient {
             server.joinGame(new JoinGameRequest(params[1], gameID), user.authToken());
             ws = new WebSocketFacade(serverUrl, notificationHandler);
             state = INGAME;
-            ws.sendGeneralCommand(user.authToken(), gameID, CONNECT);
+            ws.sendConnect(user.authToken(), gameID);
             if (params[1].equalsIgnoreCase("WHITE")) {
                 role = WHITE_PLAYER;
             } else {
@@ -171,7 +172,7 @@ public class ChessClient {
             ws = new WebSocketFacade(serverUrl, notificationHandler);
             state = INGAME;
             role = OBSERVER;
-            ws.sendGeneralCommand(user.authToken(), gameID, CONNECT);
+            ws.sendConnect(user.authToken(), gameID);
             currentGameID = gameID;
             return null;
         } else {
@@ -284,8 +285,28 @@ public class ChessClient {
         lastLoadedGame = game;
     }
 
+    /**
+     * Plays a move sent by the server on the loaded game. If the result does
+     * not match the server's game an update was missed, so the whole game is
+     * requested again.
+     *
+     * @return the updated game, or null if it is being reloaded
+     */
+    public ChessGame applyMove(MoveMadeMessage message) throws ClientException {
+        if (lastLoadedGame != null && message.applyTo(lastLoadedGame)) {
+            return lastLoadedGame;
+        }
+        if (currentGameID != null) {
+            ws.sendGeneralCommand(user.authToken(), currentGameID, RESYNC);
+        }
+        return null;
+    }
+
     private void updateGameMap() throws ClientException {
-        GameData[] games = server.listGames(user.authToken());
+        updateGameMap(server.listGames(user.authToken()));
+    }
+
+    private void updateGameMap(GameSummary[] games) {
         gameMap.clear();
         for (int i = 1; i <= games.length; i++) {
             gameMap.put(i, games[i - 1].gameID());
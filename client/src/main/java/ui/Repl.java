@@ -4,6 +4,7 @@ import chess.ChessGame;
 import websocket.NotificationHandler;
 import websocket.messages.ErrorMessage;
 import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveMadeMessage;
 import websocket.messages.NotificationMessage;
 import websocket.messages.ServerMessage;
 
@@ -11,6 +12,7 @@ import java.util.Scanner;
 
 import static ui.EscapeSequences.*;
 import static websocket.messages.ServerMessage.ServerMessageType.LOAD_GAME;
+import static websocket.messages.ServerMessage.ServerMessageType.MOVE_MADE;
 import static websocket.messages.ServerMessage.ServerMessageType.NOTIFICATION;
 
 public class Repl implements NotificationHandler {
@@ -69,6 +71,18 @@ public class Repl implements NotificationHandler {
             client.setLastLoadedGame(game);
             gamePrinter.printGame(game, client.getRole(), null);
             printPrompt();
+        } else if (notification.getServerMessageType() == MOVE_MADE) {
+            try {
+                ChessGame game = client.applyMove((MoveMadeMessage) notification);
+                if (game != null) {
+                    System.out.println();
+                    gamePrinter.printGame(game, client.getRole(), null);
+                    printPrompt();
+                }
+            } catch (ClientException e) {
+                System.out.print(SET_TEXT_COLOR_RED + e.getMessage() + RESET_TEXT_COLOR);
+                printPrompt();
+            }
         } else {
             ErrorMessage errorMessage = (ErrorMessage) notification;
             System.out.print(SET_TEXT_COLOR_RED + errorMessage.getErrorMessage() + RESET_TEXT_COLOR);
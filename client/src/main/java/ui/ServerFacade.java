@@ -1,13 +1,13 @@
 package ui;
 
-import com.google.gson.Gson;
 import model.AuthData;
-import model.GameData;
+import model.GameSummary;
 import model.UserData;
 import request.CreateGameRequest;
 import request.JoinGameRequest;
 import request.LoginRequest;
 import response.ListGamesResponse;
+import serialization.Serializer;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -52,7 +52,7 @@ public class ServerFacade {
         makeRequest("POST", path, req, null, authToken);
     }
 
-    public GameData[] listGames(String authToken) throws ClientException {
+    public GameSummary[] listGames(String authToken) throws ClientException {
         String path = "/game";
         ListGamesResponse res = makeRequest("GET", path, null, ListGamesResponse.class, authToken);
         return res.games();
@@ -85,7 +85,7 @@ public class ServerFacade {
     private static void writeBody(Object request, HttpURLConnection http) throws IOException {
         if (request != null) {
             http.addRequestProperty("Content-Type", "application/json");
-            String reqData = new Gson().toJson(request);
+            String reqData = Serializer.GSON.toJson(request);
             try (OutputStream reqBody = http.getOutputStream()) {
                 reqBody.write(reqData.getBytes());
             }
@@ -115,7 +115,7 @@ public class ServerFacade {
             try (InputStream respBody = http.getInputStream()) {
                 InputStreamReader reader = new InputStreamReader(respBody);
                 if (responseClass != null) {
-                    response = new Gson().fromJson(reader, responseClass);
+                    response = Serializer.GSON.fromJson(reader, responseClass);
                 }
             }
         }
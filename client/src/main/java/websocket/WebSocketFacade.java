@@ -1,13 +1,12 @@
 package websocket;
 
 import chess.ChessMove;
-import com.google.gson.Gson;
+import serialization.Serializer;
 import ui.ClientException;
+import websocket.commands.ConnectCommand;
 import websocket.commands.MakeMoveCommand;
 import websocket.commands.UserGameCommand;
-import websocket.messages.ErrorMessage;
 import websocket.messages.LoadGameMessage;
-import websocket.messages.NotificationMessage;
 import websocket.messages.ServerMessage;
 
 import javax.websocket.*;
@@ -47,7 +46,21 @@ public class WebSocketFacade extends Endpoint {
     public void sendGeneralCommand(String authToken, int gameID, UserGameCommand.CommandType type) throws ClientException {
         try {
             UserGameCommand command = new UserGameCommand(type, authToken, gameID);
-            this.session.getBasicRemote().sendText(new Gson().toJson(command));
+            this.session.getBasicRemote().sendText(Serializer.GSON.toJson(command));
+        } catch (IOException ex) {
+            throw new ClientException(500, ex.getMessage());
+        }
+    }
+
+    /**
+     * Joins a game's updates. The game is requested as FEN since the client
+     * only needs the position, and after that only the moves are sent, which
+     * the client plays on its own copy.
+     */
+    public void sendConnect(String authToken, int gameID) throws ClientException {
+        try {
+            UserGameCommand command = new ConnectCommand(authToken, gameID, LoadGameMessage.Format.FEN, true);
+            this.session.getBasicRemote().sendText(Serializer.GSON.toJson(command));
         } catch (IOException ex) {
             throw new ClientException(500, ex.getMessage());
         }
@@ -56,19 +69,13 @@ public class WebSocketFacade extends Endpoint {
     public void sendMakeMove(String authToken, int gameID, ChessMove move) throws ClientException {
         try {
             UserGameCommand command = new MakeMoveCommand(MAKE_MOVE, authToken, gameID, move);
-            this.session.getBasicRemote().sendText(new Gson().toJson(command));
+            this.session.getBasicRemote().sendText(Serializer.GSON.toJson(command));
         } catch (IOException ex) {
             throw new ClientException(500, ex.getMessage());
         }
     }
 
     private ServerMessage deserializeMessage(String message) {
-        ServerMessage.ServerMessageType messageType = new Gson().fromJson(message, ServerMessage.class).getServerMessageType();
-        Class<?> clazz = switch (messageType) {
-            case LOAD_GAME -> LoadGameMessage.class;
-            case ERROR -> ErrorMessage.class;
-            case NOTIFICATION -> NotificationMessage.class;
-        };
-        return (ServerMessage) new Gson().fromJson(message, clazz);
+        return Serializer.GSON.fromJson(message, ServerMessage.class);
     }
 }
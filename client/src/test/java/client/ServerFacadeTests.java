@@ -1,7 +1,7 @@
 package client;
 
 import model.AuthData;
-import model.GameData;
+import model.GameSummary;
 import model.UserData;
 import org.junit.jupiter.api.*;
 import request.CreateGameRequest;
@@ -127,7 +127,7 @@ public class ServerFacadeTests {
         facade.createGame(new CreateGameRequest(givenNames[0]), auth.authToken());
         facade.createGame(new CreateGameRequest(givenNames[1]), auth.authToken());
         facade.createGame(new CreateGameRequest(givenNames[2]), auth.authToken());
-        GameData[] result = facade.listGames(auth.authToken());
+        GameSummary[] result = facade.listGames(auth.authToken());
         String[] resultNames = {result[0].gameName(), result[1].gameName(), result[2].gameName()};
         Arrays.sort(givenNames);
         Arrays.sort(resultNames);
@@ -0,0 +1,128 @@
+package dataaccess;
+
+import model.AuthData;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Answers token lookups from memory, going to the underlying DAO only for
+ * tokens it has not seen recently. Tokens are cached when they are added or
+ * first looked up, and kept for at most {@code ttlMillis}, which bounds how
+ * long a token deleted by another server can still be accepted here. Once
+ * {@code capacity} tokens are cached the least recently used is dropped.
+ * Tokens that are not found are not cached.
+ */
+public class CachingAuthDAO implements AuthDAO {
+    private final AuthDAO delegate;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Counts deletes once they are done, so that a lookup which raced with
+     * one does not cache the token it read before the delete
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private record Entry(AuthData auth, long expiresNanos) {
+    }
+
+    public record Metrics(long hits, long misses, int size) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return (lookups == 0) ? 0 : (double) hits / lookups;
+        }
+    }
+
+    public CachingAuthDAO(AuthDAO delegate, int capacity, long ttlMillis) {
+        this(delegate, capacity, ttlMillis, System::nanoTime);
+    }
+
+    CachingAuthDAO(AuthDAO delegate, int capacity, long ttlMillis, LongSupplier clock) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Cache capacity must not be negative: " + capacity);
+        }
+        this.delegate = delegate;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        delegate.clear();
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    @Override
+    public void addAuth(AuthData authData) throws DataAccessException {
+        delegate.addAuth(authData);
+        synchronized (entries) {
+            entries.put(authData.authToken(), new Entry(authData, clock.getAsLong() + ttlNanos));
+        }
+    }
+
+    @Override
+    public AuthData getAuth(String authToken) throws DataAccessException {
+        if (authToken == null) {
+            return delegate.getAuth(null);
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(authToken);
+        }
+        if (entry != null && clock.getAsLong() - entry.expiresNanos() < 0) {
+            hits.increment();
+            return entry.auth();
+        }
+        misses.increment();
+        long invalidationsBefore = invalidations.get();
+        AuthData auth = delegate.getAuth(authToken);
+        synchronized (entries) {
+            if (auth == null) {
+                entries.remove(authToken);
+            } else if (invalidations.get() == invalidationsBefore) {
+                entries.put(authToken, new Entry(auth, clock.getAsLong() + ttlNanos));
+            }
+        }
+        return auth;
+    }
+
+    @Override
+    public void deleteAuth(String authToken) throws DataAccessException {
+        delegate.deleteAuth(authToken);
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(authToken);
+        }
+    }
+
+    @Override
+    public int getSize() throws DataAccessException {
+        return delegate.getSize();
+    }
+
+    /**
+     * @return lookups answered from memory and from the underlying DAO since
+     * the cache was created, and the number of tokens cached
+     */
+    public Metrics metrics() {
+        synchronized (entries) {
+            return new Metrics(hits.sum(), misses.sum(), entries.size());
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps database connections open between DAO calls so that a call does not
+ * pay for a TCP connect and MySQL login each time.
+ * <p>
+ * {@link #getConnection()} hands out a wrapper whose {@code close()} returns
+ * the connection to the pool instead of closing it, so callers keep using
+ * try-with-resources as before. At most {@link Config#maxSize()} connections
+ * are out at once; further callers wait up to {@link Config#borrowTimeoutMillis()}.
+ * <p>
+ * A background task keeps at least {@link Config#minSize()} connections open,
+ * closes connections idle for longer than {@link Config#idleTimeoutMillis()},
+ * and logs the borrowing stack of any connection held longer than
+ * {@link Config#leakThresholdMillis()}.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final System.Logger LOGGER = System.getLogger(ConnectionPool.class.getName());
+
+    /**
+     * Opens a new physical connection
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * @param minSize                  connections kept open even when idle
+     * @param maxSize                  connections open at most, idle or borrowed
+     * @param borrowTimeoutMillis      how long a caller waits for a free connection
+     * @param idleTimeoutMillis        how long a connection above the minimum may sit unused
+     * @param validationIntervalMillis connections idle longer than this are checked
+     *                                 with {@link Connection#isValid} before being handed out
+     * @param leakThresholdMillis      how long a connection may be held before it is
+     *                                 reported as leaked, or 0 to not check
+     */
+    public record Config(int minSize, int maxSize, long borrowTimeoutMillis, long idleTimeoutMillis,
+                         long validationIntervalMillis, long leakThresholdMillis) {
+        public Config {
+            if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+                throw new IllegalArgumentException(
+                        String.format("Invalid pool size: min %d, max %d", minSize, maxSize));
+            }
+        }
+
+        /**
+         * Reads {@code db.pool.*} properties, using defaults for any that are missing
+         */
+        public static Config from(Properties props) {
+            return new Config(
+                    Integer.parseInt(props.getProperty("db.pool.minSize", "2")),
+                    Integer.parseInt(props.getProperty("db.pool.maxSize", "10")),
+                    Long.parseLong(props.getProperty("db.pool.borrowTimeoutMillis", "30000")),
+                    Long.parseLong(props.getProperty("db.pool.idleTimeoutMillis", "600000")),
+                    Long.parseLong(props.getProperty("db.pool.validationIntervalMillis", "500")),
+                    Long.parseLong(props.getProperty("db.pool.leakThresholdMillis", "0"))
+            );
+        }
+    }
+
+    /**
+     * A snapshot of the pool's state
+     *
+     * @param active         connections currently borrowed
+     * @param idle           connections open and waiting to be borrowed
+     * @param borrows        connections handed out since the pool started
+     * @param totalWaitNanos time callers have spent waiting for a connection, in total
+     * @param maxWaitNanos   the longest any caller has waited
+     * @param created        physical connections opened
+     * @param discarded      physical connections closed for failing validation or sitting idle
+     */
+    public record Metrics(int active, int idle, long borrows, long totalWaitNanos, long maxWaitNanos,
+                          long created, long discarded) {
+        public long averageWaitNanos() {
+            return (borrows == 0) ? 0 : totalWaitNanos / borrows;
+        }
+    }
+
+    private static final class Pooled {
+        final Connection connection;
+        long lastUsedNanos;
+        long borrowedNanos;
+        Throwable borrowedBy;
+
+        Pooled(Connection connection) {
+            this.connection = connection;
+            this.lastUsedNanos = System.nanoTime();
+        }
+    }
+
+    private final ConnectionFactory factory;
+    private final Config config;
+    private final Semaphore permits;
+    private final Deque<Pooled> idle = new ArrayDeque<>();
+    private final Set<Pooled> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService maintenance;
+    private volatile boolean closed;
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private volatile long maxWaitNanos;
+
+    public ConnectionPool(ConnectionFactory factory, Config config) {
+        this(factory, config, true);
+    }
+
+    /**
+     * @param background false to skip the maintenance task, leaving {@link #maintain()}
+     *                   to be called directly
+     */
+    ConnectionPool(ConnectionFactory factory, Config config, boolean background) {
+        this.factory = factory;
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize(), true);
+        if (background) {
+            maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "connection-pool-maintenance");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1000, Math.min(config.idleTimeoutMillis(), 30_000) / 2);
+            maintenance.scheduleWithFixedDelay(this::maintain, 0, period, TimeUnit.MILLISECONDS);
+        } else {
+            maintenance = null;
+        }
+    }
+
+    /**
+     * Borrows a connection. Closing it returns it to the pool.
+     *
+     * @throws DataAccessException if no connection frees up in time or a new
+     *                             one cannot be opened
+     */
+    public Connection getConnection() throws DataAccessException {
+        if (closed) {
+            throw new DataAccessException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.borrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new DataAccessException(String.format(
+                        "Timed out after %d ms waiting for a database connection", config.borrowTimeoutMillis()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Interrupted waiting for a database connection");
+        }
+        long waited = System.nanoTime() - start;
+        try {
+            Pooled pooled = take();
+            recordBorrow(pooled, waited);
+            return wrap(pooled);
+        } catch (SQLException e) {
+            permits.release();
+            throw new DataAccessException(e.getMessage());
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes an idle connection that passes validation, or opens a new one
+     */
+    private Pooled take() throws SQLException {
+        while (true) {
+            Pooled pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) {
+                return open();
+            }
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+    }
+
+    private boolean isUsable(Pooled pooled) {
+        long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pooled.lastUsedNanos);
+        if (idleMillis < config.validationIntervalMillis()) {
+            return true;
+        }
+        try {
+            return pooled.connection.isValid(5);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Pooled open() throws SQLException {
+        Pooled pooled = new Pooled(factory.open());
+        created.increment();
+        return pooled;
+    }
+
+    private void recordBorrow(Pooled pooled, long waited) {
+        pooled.borrowedNanos = System.nanoTime();
+        pooled.borrowedBy = (config.leakThresholdMillis() > 0) ? new Throwable("Connection borrowed here") : null;
+        borrowed.add(pooled);
+        borrows.increment();
+        totalWaitNanos.add(waited);
+        if (waited > maxWaitNanos) {
+            synchronized (this) {
+                maxWaitNanos = Math.max(maxWaitNanos, waited);
+            }
+        }
+    }
+
+    private void release(Pooled pooled) {
+        borrowed.remove(pooled);
+        boolean reusable = !closed;
+        try {
+            if (reusable && !pooled.connection.getAutoCommit()) {
+                pooled.connection.rollback();
+                pooled.connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+        if (reusable) {
+            pooled.lastUsedNanos = System.nanoTime();
+            synchronized (idle) {
+                idle.offerFirst(pooled);
+            }
+        } else {
+            discard(pooled);
+        }
+        permits.release();
+    }
+
+    private void discard(Pooled pooled) {
+        discarded.increment();
+        try {
+            pooled.connection.close();
+        } catch (SQLException ignored) {
+            // the connection is being thrown away either way
+        }
+    }
+
+    /**
+     * Wraps a pooled connection so that {@code close()} hands it back. Calls
+     * after close fail as they would on a closed connection.
+     */
+    private Connection wrap(Pooled pooled) {
+        AtomicBoolean returned = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        if (returned.compareAndSet(false, true)) {
+                            release(pooled);
+                        }
+                        yield null;
+                    }
+                    case "isClosed" -> returned.get() || pooled.connection.isClosed();
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Pooled " + pooled.connection;
+                    default -> {
+                        if (returned.get()) {
+                            throw new SQLException("Connection has been returned to the pool");
+                        }
+                        try {
+                            yield method.invoke(pooled.connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Closes connections idle past the timeout, opens connections up to the
+     * minimum size, and reports leaked connections. Runs periodically in the
+     * background.
+     */
+    void maintain() {
+        if (closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.idleTimeoutMillis());
+        synchronized (idle) {
+            Iterator<Pooled> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && idle.size() + borrowed.size() > config.minSize()) {
+                Pooled pooled = oldestFirst.next();
+                if (now - pooled.lastUsedNanos > idleTimeoutNanos) {
+                    oldestFirst.remove();
+                    discard(pooled);
+                }
+            }
+        }
+        fillToMinimum();
+        reportLeaks(now);
+    }
+
+    private void fillToMinimum() {
+        while (!closed && idleCount() + borrowed.size() < config.minSize() && permits.tryAcquire()) {
+            try {
+                Pooled pooled = open();
+                synchronized (idle) {
+                    idle.offerLast(pooled);
+                }
+            } catch (SQLException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Unable to open database connection: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void reportLeaks(long now) {
+        if (config.leakThresholdMillis() <= 0) {
+            return;
+        }
+        long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.leakThresholdMillis());
+        for (Pooled pooled : borrowed) {
+            Throwable borrowedBy = pooled.borrowedBy;
+            if (borrowedBy != null && now - pooled.borrowedNanos > thresholdNanos) {
+                pooled.borrowedBy = null;
+                LOGGER.log(System.Logger.Level.WARNING, String.format("Database connection held for over %d ms, possible leak",
+                        config.leakThresholdMillis()), borrowedBy);
+            }
+        }
+    }
+
+    private int idleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    public Metrics metrics() {
+        return new Metrics(borrowed.size(), idleCount(), borrows.sum(), totalWaitNanos.sum(), maxWaitNanos,
+                created.sum(), discarded.sum());
+    }
+
+    /**
+     * Closes every idle connection and stops the background task. Borrowed
+     * connections are closed as they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+        synchronized (idle) {
+            for (Pooled pooled : idle) {
+                discard(pooled);
+            }
+            idle.clear();
+        }
+    }
+}
@@ -8,6 +8,15 @@ public class DatabaseManager {
     private static final String USER;
     private static final String PASSWORD;
     private static final String CONNECTION_URL;
+    private static final Properties CONNECTION_PROPERTIES = new Properties();
+    private static final GameColumn.Format GAME_FORMAT;
+    private static final ConnectionPool.Config POOL_CONFIG;
+    private static final long WRITE_BEHIND_MILLIS;
+    private static final long WRITE_BEHIND_IDLE_MILLIS;
+    private static final boolean MOVE_LOG;
+    private static final int SNAPSHOT_INTERVAL;
+    private static final int AUTH_CACHE_SIZE;
+    private static final long AUTH_CACHE_TTL_MILLIS;
 
     /*
      * Load the database information for the db.properties file.
@@ -27,19 +36,51 @@ public class DatabaseManager {
                 var host = props.getProperty("db.host");
                 var port = Integer.parseInt(props.getProperty("db.port"));
                 CONNECTION_URL = String.format("jdbc:mysql://%s:%d", host, port);
+                GAME_FORMAT = GameColumn.Format.valueOf(props.getProperty("db.gameFormat", "binary").toUpperCase());
+                POOL_CONFIG = ConnectionPool.Config.from(props);
+                WRITE_BEHIND_MILLIS = Long.parseLong(props.getProperty("db.writeBehindMillis", "100"));
+                WRITE_BEHIND_IDLE_MILLIS = Long.parseLong(props.getProperty("db.writeBehindIdleMillis", "600000"));
+                MOVE_LOG = Boolean.parseBoolean(props.getProperty("db.moveLog", "true"));
+                SNAPSHOT_INTERVAL = Integer.parseInt(props.getProperty("db.snapshotInterval", "20"));
+                AUTH_CACHE_SIZE = Integer.parseInt(props.getProperty("db.authCache.size", "10000"));
+                AUTH_CACHE_TTL_MILLIS = Long.parseLong(props.getProperty("db.authCache.ttlMillis", "60000"));
+                loadConnectionProperties(props);
             }
         } catch (Exception ex) {
             throw new RuntimeException("unable to process db.properties. " + ex.getMessage());
         }
     }
 
+    /**
+     * Pooled connections keep their prepared statements: the driver caches them
+     * per connection and prepares them on the server once, so repeated queries
+     * skip the parse. Any db.jdbc.* entry in db.properties is passed to the
+     * driver as a connection property, overriding these defaults.
+     */
+    private static void loadConnectionProperties(Properties props) {
+        if (USER != null) {
+            CONNECTION_PROPERTIES.setProperty("user", USER);
+        }
+        if (PASSWORD != null) {
+            CONNECTION_PROPERTIES.setProperty("password", PASSWORD);
+        }
+        CONNECTION_PROPERTIES.setProperty("cachePrepStmts", "true");
+        CONNECTION_PROPERTIES.setProperty("useServerPrepStmts", "true");
+        CONNECTION_PROPERTIES.setProperty("prepStmtCacheSize", "250");
+        CONNECTION_PROPERTIES.setProperty("prepStmtCacheSqlLimit", "2048");
+        for (String name : props.stringPropertyNames()) {
+            if (name.startsWith("db.jdbc.")) {
+                CONNECTION_PROPERTIES.setProperty(name.substring("db.jdbc.".length()), props.getProperty(name));
+            }
+        }
+    }
+
     /**
      * Creates the database if it does not already exist.
      */
     static void createDatabase() throws DataAccessException {
-        try {
-            var statement = "CREATE DATABASE IF NOT EXISTS " + DATABASE_NAME;
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+        var statement = "CREATE DATABASE IF NOT EXISTS " + DATABASE_NAME;
+        try (var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD)) {
             try (var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.executeUpdate();
             }
@@ -49,24 +90,105 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
-     * The easiest way to do that is with a try-with-resource block.
+     * @return how games are written to the game table, set by db.gameFormat
+     * ("binary", the default, or "fen")
+     */
+    static GameColumn.Format gameFormat() {
+        return GAME_FORMAT;
+    }
+
+    /**
+     * @return how long game updates may wait in memory before being written,
+     * set by db.writeBehindMillis, or 0 to write every update immediately
+     */
+    public static long writeBehindMillis() {
+        return WRITE_BEHIND_MILLIS;
+    }
+
+    /**
+     * @return how long a game with nothing left to write stays in memory after
+     * it was last used, set by db.writeBehindIdleMillis
+     */
+    public static long writeBehindIdleMillis() {
+        return WRITE_BEHIND_IDLE_MILLIS;
+    }
+
+    /**
+     * @return whether moves are appended to the game_move table instead of
+     * rewriting the game, set by db.moveLog
+     */
+    static boolean moveLog() {
+        return MOVE_LOG;
+    }
+
+    /**
+     * @return how many moves may be logged for a game before its stored
+     * snapshot is brought up to date, set by db.snapshotInterval
+     */
+    static int snapshotInterval() {
+        return SNAPSHOT_INTERVAL;
+    }
+
+    /**
+     * @return how many auth tokens are kept in memory, set by
+     * db.authCache.size, or 0 to look up every token in the database
+     */
+    public static int authCacheSize() {
+        return AUTH_CACHE_SIZE;
+    }
+
+    /**
+     * @return how long a cached auth token is trusted before it is looked up
+     * again, set by db.authCache.ttlMillis
+     */
+    public static long authCacheTtlMillis() {
+        return AUTH_CACHE_TTL_MILLIS;
+    }
+
+    /**
+     * Borrows a connection to the database from the pool, with the catalog set
+     * based upon the properties specified in db.properties. Connections should
+     * be short-lived, and you must close the connection when you are done with
+     * it, which returns it to the pool. The easiest way to do that is with a
+     * try-with-resource block.
      * <br/>
      * <code>
-     * try (var conn = DbInfo.getConnection(databaseName)) {
+     * try (var conn = DatabaseManager.getConnection()) {
      * // execute SQL statements.
      * }
      * </code>
+     * The pool is sized and tuned by the db.pool.* properties, see
+     * {@link ConnectionPool.Config#from(Properties)}.
      */
     static Connection getConnection() throws DataAccessException {
+        return PoolHolder.POOL.getConnection();
+    }
+
+    /**
+     * @return active and idle connection counts and wait times of the pool
+     */
+    public static ConnectionPool.Metrics connectionPoolMetrics() {
+        return PoolHolder.POOL.metrics();
+    }
+
+    /**
+     * The pool is created on first use, after the database itself has been
+     * created, so that its first connections can select the catalog. Class
+     * initialization makes that happen once, and after it a borrow reads the
+     * field without taking any lock.
+     */
+    private static final class PoolHolder {
+        static final ConnectionPool POOL = new ConnectionPool(DatabaseManager::openConnection, POOL_CONFIG);
+    }
+
+    private static Connection openConnection() throws SQLException {
+        var conn = DriverManager.getConnection(CONNECTION_URL, CONNECTION_PROPERTIES);
         try {
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
             conn.setCatalog(DATABASE_NAME);
-            return conn;
         } catch (SQLException e) {
-            throw new DataAccessException(e.getMessage());
+            conn.close();
+            throw e;
         }
+        return conn;
     }
 }
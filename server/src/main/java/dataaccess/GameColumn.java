@@ -0,0 +1,79 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts games to and from the {@code game} column. Games are written either
+ * with {@link GameCodec} or as FEN text, which is larger but readable in a SQL
+ * client. Rows written before the column held binary data contain Gson JSON
+ * instead, which is still read so existing games keep working; such rows are
+ * rewritten the next time the game is updated.
+ * <p>
+ * The format of a row is told apart by its first byte: the codec version, a
+ * '{' for JSON, or otherwise FEN.
+ */
+final class GameColumn {
+    private static final Gson GSON = Serializer.GSON;
+
+    /**
+     * Marks an ended game in the FEN format, which has no field for it
+     */
+    private static final String FEN_OVER = "\nover";
+
+    enum Format {
+        BINARY,
+        FEN
+    }
+
+    private GameColumn() {
+    }
+
+    static byte[] write(ChessGame game, Format format) {
+        if (format == Format.FEN) {
+            String fen = game.isOver() ? game.toFen() + FEN_OVER : game.toFen();
+            return fen.getBytes(StandardCharsets.US_ASCII);
+        }
+        return GameCodec.encode(game);
+    }
+
+    static ChessGame read(byte[] bytes) throws DataAccessException {
+        try {
+            if (bytes.length > 0 && bytes[0] == GameCodec.VERSION) {
+                return GameCodec.decode(bytes);
+            }
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            if (text.startsWith("{")) {
+                return readJson(text);
+            }
+            return readFen(text);
+        } catch (RuntimeException e) {
+            throw new DataAccessException(String.format("Unable to read game: %s", e.getMessage()));
+        }
+    }
+
+    private static ChessGame readFen(String text) {
+        boolean over = text.endsWith(FEN_OVER);
+        ChessGame game = ChessGame.fromFen(over ? text.substring(0, text.length() - FEN_OVER.length()) : text);
+        game.setOver(over);
+        return game;
+    }
+
+    /**
+     * Reads a game stored as JSON. Besides a plain game this accepts a whole
+     * GameData object, which is how new games used to be inserted.
+     */
+    private static ChessGame readJson(String json) {
+        JsonObject object = JsonParser.parseString(json).getAsJsonObject();
+        if (!object.has("board") && object.has("game")) {
+            object = object.getAsJsonObject("game");
+        }
+        return GSON.fromJson(object, ChessGame.class);
+    }
+}
@@ -1,6 +1,11 @@
 package dataaccess;
 
+import chess.ChessMove;
 import model.GameData;
+import model.GameSummary;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public interface GameDAO {
     void clear() throws DataAccessException;
@@ -11,7 +16,70 @@ public interface GameDAO {
 
     GameData[] listGames() throws DataAccessException;
 
+    /**
+     * Lists every game without the games themselves, in ID order. Stores
+     * should override this so that a listing never reads the games.
+     */
+    default GameSummary[] listGameSummaries() throws DataAccessException {
+        GameData[] games = listGames();
+        GameSummary[] summaries = new GameSummary[games.length];
+        for (int i = 0; i < games.length; i++) {
+            summaries[i] = GameSummary.of(games[i]);
+        }
+        return summaries;
+    }
+
+    /**
+     * Lists one page of games without the games themselves. Stores that can
+     * look up a page directly should override this instead of filtering the
+     * whole list.
+     */
+    default GameSummary[] listGameSummaries(GameQuery query) throws DataAccessException {
+        List<GameSummary> page = new ArrayList<>(query.limit());
+        for (GameData game : listGames()) {
+            if (game.gameID() > query.afterGameID() && query.matches(game)) {
+                page.add(GameSummary.of(game));
+                if (page.size() == query.limit()) {
+                    break;
+                }
+            }
+        }
+        return page.toArray(new GameSummary[0]);
+    }
+
     void updateGame(GameData updatedGame) throws DataAccessException;
 
+    /**
+     * Updates several games at once. Implementations backed by a database
+     * should override this to write them in one round trip.
+     */
+    default void updateGames(List<GameData> updatedGames) throws DataAccessException {
+        for (GameData game : updatedGames) {
+            updateGame(game);
+        }
+    }
+
+    /**
+     * Records a move that has just been made in a game
+     *
+     * @param updatedGame the game after the move
+     * @param move        the move made
+     */
+    default void addMove(GameData updatedGame, ChessMove move) throws DataAccessException {
+        addMoves(updatedGame, List.of(move));
+    }
+
+    /**
+     * Records the latest moves made in a game, oldest first. Stores that keep a
+     * log of moves should override this to append just the moves instead of
+     * rewriting the whole game.
+     *
+     * @param updatedGame the game after the last of the moves
+     * @param moves       the moves made since the game was last stored
+     */
+    default void addMoves(GameData updatedGame, List<ChessMove> moves) throws DataAccessException {
+        updateGame(updatedGame);
+    }
+
     int getSize() throws DataAccessException;
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package dataaccess;
+
+import model.GameData;
+
+/**
+ * Selects one page of games: at most {@code limit} games with IDs above
+ * {@code afterGameID}, in ID order, that pass every filter. Starting each page
+ * from the last ID of the one before, rather than skipping a count of games,
+ * keeps later pages as cheap as the first.
+ *
+ * @param afterGameID the last game ID of the previous page, or 0 for the first
+ * @param limit       the most games to return
+ * @param openSeat    whether to return only games with a seat free
+ * @param player      if not null, return only games this user plays in
+ * @param finished    if not null, return only games that have ended (true) or
+ *                    are still being played (false)
+ */
+public record GameQuery(int afterGameID, int limit, boolean openSeat, String player, Boolean finished) {
+
+    public GameQuery {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + limit);
+        }
+    }
+
+    /**
+     * @return whether the game passes the filters, ignoring its place in the
+     * ID order
+     */
+    public boolean matches(GameData game) {
+        if (openSeat && game.whiteUsername() != null && game.blackUsername() != null) {
+            return false;
+        }
+        if (player != null && !player.equals(game.whiteUsername()) && !player.equals(game.blackUsername())) {
+            return false;
+        }
+        return finished == null || game.game() == null || finished == game.game().isOver();
+    }
+}
@@ -2,10 +2,11 @@ package dataaccess;
 
 import model.AuthData;
 
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MemoryAuthDAO implements AuthDAO {
-    private final HashMap<String, AuthData> authDataTable = new HashMap<>();
+    private final Map<String, AuthData> authDataTable = new ConcurrentHashMap<>();
 
     @Override
     public void clear() throws DataAccessException {
@@ -19,16 +20,18 @@ public class MemoryAuthDAO implements AuthDAO {
 
     @Override
     public AuthData getAuth(String authToken) {
-        return authDataTable.get(authToken);
+        return (authToken == null) ? null : authDataTable.get(authToken);
     }
 
     @Override
     public void deleteAuth(String authToken) {
-        authDataTable.remove(authToken);
+        if (authToken != null) {
+            authDataTable.remove(authToken);
+        }
     }
 
     @Override
     public int getSize() {
         return authDataTable.size();
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,22 @@
 package dataaccess;
 
 import model.GameData;
+import model.GameSummary;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Keeps games in memory. It is safe to use from many threads at once: IDs come
+ * from an atomic sequence, and the sorted concurrent map locks only the game
+ * being changed, so games are listed in ID order without blocking writers.
+ */
 public class MemoryGameDAO implements GameDAO {
-    private int nextId = 1;
-    private final HashMap<Integer, GameData> gameDataTable = new HashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final ConcurrentNavigableMap<Integer, GameData> gameDataTable = new ConcurrentSkipListMap<>();
 
     @Override
     public void clear() throws DataAccessException {
@@ -15,15 +25,16 @@ public class MemoryGameDAO implements GameDAO {
 
     @Override
     public int addGame(GameData game) {
-        gameDataTable.put(nextId, new GameData(
-                        nextId,
+        int gameID = nextId.getAndIncrement();
+        gameDataTable.put(gameID, new GameData(
+                        gameID,
                         game.whiteUsername(),
                         game.blackUsername(),
                         game.gameName(),
                         game.game()
                 )
         );
-        return nextId++;
+        return gameID;
     }
 
     @Override
@@ -33,21 +44,47 @@ public class MemoryGameDAO implements GameDAO {
 
     @Override
     public GameData[] listGames() {
-        GameData[] gameList = new GameData[gameDataTable.size()];
-        int i = 0;
+        return gameDataTable.values().toArray(new GameData[0]);
+    }
+
+    @Override
+    public GameSummary[] listGameSummaries() {
+        List<GameSummary> summaries = new ArrayList<>(gameDataTable.size());
         for (GameData game : gameDataTable.values()) {
-            gameList[i++] = game;
+            summaries.add(GameSummary.of(game));
+        }
+        return summaries.toArray(new GameSummary[0]);
+    }
+
+    /**
+     * Starts from the first game after the cursor, so earlier games are
+     * never visited
+     */
+    @Override
+    public GameSummary[] listGameSummaries(GameQuery query) {
+        List<GameSummary> page = new ArrayList<>(query.limit());
+        for (GameData game : gameDataTable.tailMap(query.afterGameID(), false).values()) {
+            if (query.matches(game)) {
+                page.add(GameSummary.of(game));
+                if (page.size() == query.limit()) {
+                    break;
+                }
+            }
         }
-        return gameList;
+        return page.toArray(new GameSummary[0]);
     }
 
+    /**
+     * Replaces a game, like an SQL update: a game that does not exist, for
+     * example because it was cleared meanwhile, is not brought back
+     */
     @Override
     public void updateGame(GameData updatedGame) {
-        gameDataTable.put(updatedGame.gameID(), updatedGame);
+        gameDataTable.computeIfPresent(updatedGame.gameID(), (gameID, game) -> updatedGame);
     }
 
     @Override
     public int getSize() {
         return gameDataTable.size();
     }
-}
\ No newline at end of file
+}
@@ -2,28 +2,35 @@ package dataaccess;
 
 import model.UserData;
 
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MemoryUserDAO implements UserDAO {
-    private final HashMap<String, UserData> userDataTable = new HashMap<>();
+    private final Map<String, UserData> userDataTable = new ConcurrentHashMap<>();
 
     @Override
     public void clear() throws DataAccessException {
         userDataTable.clear();
     }
 
+    /**
+     * @throws DataAccessException if the username is taken, as the primary key
+     * of the user table would
+     */
     @Override
-    public void createUser(UserData user) {
-        userDataTable.put(user.username(), user);
+    public void createUser(UserData user) throws DataAccessException {
+        if (userDataTable.putIfAbsent(user.username(), user) != null) {
+            throw new DataAccessException(String.format("User %s already exists", user.username()));
+        }
     }
 
     @Override
     public UserData getUser(String username) {
-        return userDataTable.get(username);
+        return (username == null) ? null : userDataTable.get(username);
     }
 
     @Override
     public int getSize() {
         return userDataTable.size();
     }
-}
\ No newline at end of file
+}
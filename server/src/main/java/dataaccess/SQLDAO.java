@@ -1,10 +1,12 @@
 package dataaccess;
 
 import chess.ChessGame;
-import com.google.gson.Gson;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
 
 import static java.sql.Statement.RETURN_GENERATED_KEYS;
 import static java.sql.Types.NULL;
@@ -32,9 +34,19 @@ public class SQLDAO {
               `whiteUsername` varchar(256) DEFAULT NULL,
               `blackUsername` varchar(256) DEFAULT NULL,
               `gameName` varchar(256) NOT NULL,
-              `game` MEDIUMTEXT NOT NULL,
+              `game` BLOB NOT NULL,
+              `snapshot_ply` int NOT NULL DEFAULT 0,
+              `finished` boolean NOT NULL DEFAULT false,
               PRIMARY KEY (`gameID`)
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS  game_move (
+              `gameID` int NOT NULL,
+              `ply` int NOT NULL,
+              `move` smallint NOT NULL,
+              PRIMARY KEY (`gameID`, `ply`)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
             """
     };
 
@@ -46,20 +58,159 @@ public class SQLDAO {
                     preparedStatement.executeUpdate();
                 }
             }
+            migrateGameColumn(conn);
+            addSnapshotPlyColumn(conn);
+            addFinishedColumn(conn);
         } catch (SQLException ex) {
             throw new DataAccessException(String.format("Unable to configure database: %s", ex.getMessage()));
         }
     }
 
+    /**
+     * Games used to be stored as JSON text. Switching the column to binary
+     * keeps the existing bytes, and {@link GameColumn} still reads them.
+     */
+    private void migrateGameColumn(Connection conn) throws SQLException {
+        var query = """
+                SELECT DATA_TYPE FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'game' AND COLUMN_NAME = 'game'
+                """;
+        try (var ps = conn.prepareStatement(query); var rs = ps.executeQuery()) {
+            if (!rs.next() || !rs.getString(1).toLowerCase().endsWith("text")) {
+                return;
+            }
+        }
+        try (var ps = conn.prepareStatement("ALTER TABLE game MODIFY `game` BLOB NOT NULL")) {
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Game tables created before moves were logged lack the ply of the stored
+     * game. Their games are taken as snapshots at ply 0 with no moves since.
+     */
+    private void addSnapshotPlyColumn(Connection conn) throws SQLException {
+        var query = """
+                SELECT COUNT(*) FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'game' AND COLUMN_NAME = 'snapshot_ply'
+                """;
+        try (var ps = conn.prepareStatement(query); var rs = ps.executeQuery()) {
+            if (rs.next() && rs.getInt(1) > 0) {
+                return;
+            }
+        }
+        try (var ps = conn.prepareStatement("ALTER TABLE game ADD COLUMN `snapshot_ply` int NOT NULL DEFAULT 0")) {
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Game tables created before games could be listed by whether they have
+     * ended lack the finished column. It is filled in once from the stored
+     * games, which is the only time listing needs to read them.
+     */
+    private void addFinishedColumn(Connection conn) throws SQLException {
+        var query = """
+                SELECT COUNT(*) FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'game' AND COLUMN_NAME = 'finished'
+                """;
+        try (var ps = conn.prepareStatement(query); var rs = ps.executeQuery()) {
+            if (rs.next() && rs.getInt(1) > 0) {
+                return;
+            }
+        }
+        try (var ps = conn.prepareStatement("ALTER TABLE game ADD COLUMN `finished` boolean NOT NULL DEFAULT false")) {
+            ps.executeUpdate();
+        }
+        try (var select = conn.prepareStatement("SELECT gameID, game FROM game");
+             var update = conn.prepareStatement("UPDATE game SET finished=true WHERE gameID=?");
+             var rs = select.executeQuery()) {
+            while (rs.next()) {
+                if (readsAsFinished(rs.getBytes("game"))) {
+                    update.setInt(1, rs.getInt("gameID"));
+                    update.addBatch();
+                }
+            }
+            update.executeBatch();
+        }
+    }
+
+    private static boolean readsAsFinished(byte[] game) {
+        try {
+            return GameColumn.read(game).isOver();
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the number of rows changed
+     */
     public int executeUpdate(String statement, Object... params) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            try (var ps = conn.prepareStatement(statement)) {
+                setParameters(ps, params);
+                return ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("unable to update database: %s, %s", statement, e.getMessage()));
+        }
+    }
+
+    /**
+     * Runs one statement once per parameter row, sending every row to the
+     * database together in a single transaction
+     */
+    public void executeBatch(String statement, List<Object[]> rows) throws DataAccessException {
+        executeBatches(Map.of(statement, rows));
+    }
+
+    /**
+     * Runs several statements, each once per its parameter rows, in a single
+     * transaction. Statements run in the iteration order of the map.
+     */
+    public void executeBatches(Map<String, List<Object[]>> batches) throws DataAccessException {
+        String statement = null;
+        try (var conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (var batch : batches.entrySet()) {
+                    statement = batch.getKey();
+                    try (var ps = conn.prepareStatement(statement)) {
+                        for (Object[] params : batch.getValue()) {
+                            setParameters(ps, params);
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("unable to update database: %s, %s", statement, e.getMessage()));
+        }
+    }
+
+    /**
+     * Runs an INSERT into a table with an auto-increment key
+     *
+     * @return the key generated for the new row, or 0 if none was
+     */
+    public int executeInsert(String statement, Object... params) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
             try (var ps = conn.prepareStatement(statement, RETURN_GENERATED_KEYS)) {
                 setParameters(ps, params);
                 ps.executeUpdate();
 
-                var rs = ps.getGeneratedKeys();
-                if (rs.next()) {
-                    return rs.getInt(1);
+                try (var rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        return rs.getInt(1);
+                    }
                 }
 
                 return 0;
@@ -69,13 +220,14 @@ public class SQLDAO {
         }
     }
 
-    private void setParameters(PreparedStatement ps, Object... params) throws SQLException {
+    void setParameters(PreparedStatement ps, Object... params) throws SQLException {
         for (var i = 0; i < params.length; i++) {
             var param = params[i];
             switch (param) {
                 case String p -> ps.setString(i + 1, p);
                 case Integer p -> ps.setInt(i + 1, p);
-                case ChessGame p -> ps.setString(i + 1, new Gson().toJson(p));
+                case Boolean p -> ps.setBoolean(i + 1, p);
+                case ChessGame p -> ps.setBytes(i + 1, GameColumn.write(p, DatabaseManager.gameFormat()));
                 case null -> ps.setNull(i + 1, NULL);
                 default -> {
                 }
@@ -1,45 +1,71 @@
 package dataaccess;
 
 import chess.ChessGame;
-import com.google.gson.Gson;
+import chess.ChessMove;
+import chess.GameCodec;
+import chess.InvalidMoveException;
 import model.GameData;
+import model.GameSummary;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Stores each game as a snapshot in the game table plus, when db.moveLog is
+ * on, a log of the moves made since in the game_move table. A move then costs
+ * one small row instead of a rewrite of the game, and the snapshot is brought
+ * up to date every db.snapshotInterval moves so that loading a game replays
+ * only a few moves.
+ */
 public class SQLGameDAO extends SQLDAO implements GameDAO {
+    private static final String UPDATE_GAME =
+            "UPDATE game SET whiteUsername=?, blackUsername=?, gameName=?, game=?, snapshot_ply=?, finished=? WHERE gameID=?";
+    private static final String UPDATE_SNAPSHOT = "UPDATE game SET game=?, snapshot_ply=?, finished=? WHERE gameID=?";
+    private static final String INSERT_MOVE = "INSERT INTO game_move (gameID, ply, move) VALUES (?, ?, ?)";
+    private static final String DELETE_LATER_MOVES = "DELETE FROM game_move WHERE gameID=? AND ply>?";
+
     public SQLGameDAO() throws DataAccessException {
         configureDatabase();
     }
 
     @Override
     public void clear() throws DataAccessException {
-        String statement = "TRUNCATE game";
-        executeUpdate(statement);
+        executeUpdate("TRUNCATE game_move");
+        executeUpdate("TRUNCATE game");
     }
 
     @Override
     public int addGame(GameData game) throws DataAccessException {
-        String statement = "INSERT INTO game (whiteUsername, blackUsername, gameName, game) VALUES (?, ?, ?, ?)";
-        String gameJSON = new Gson().toJson(game);
-        return executeUpdate(statement,
+        String statement = """
+                INSERT INTO game (whiteUsername, blackUsername, gameName, game, snapshot_ply, finished)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """;
+        return executeInsert(statement,
                 game.whiteUsername(),
                 game.blackUsername(),
                 game.gameName(),
-                gameJSON
+                game.game(),
+                game.game().getPly(),
+                game.game().isOver()
         );
     }
 
     @Override
     public GameData getGame(int gameID) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
-            String statement = "SELECT gameID, whiteUsername, blackUsername, gameName, game FROM game WHERE gameID=?";
+            String statement = "SELECT gameID, whiteUsername, blackUsername, gameName, game, snapshot_ply FROM game WHERE gameID=?";
             try (var ps = conn.prepareStatement(statement)) {
                 ps.setInt(1, gameID);
                 try (var rs = ps.executeQuery()) {
                     if (rs.next()) {
-                        return readGame(rs);
+                        GameData game = readGame(rs);
+                        replayMoves(conn, game.game(), gameID);
+                        return game;
                     }
                 }
             }
@@ -51,33 +77,138 @@ public class SQLGameDAO extends SQLDAO implements GameDAO {
 
     @Override
     public GameData[] listGames() throws DataAccessException {
-        ArrayList<GameData> result = new ArrayList<>();
+        Map<Integer, GameData> result = new LinkedHashMap<>();
         try (var conn = DatabaseManager.getConnection()) {
             var statement = "SELECT * FROM game";
             try (var ps = conn.prepareStatement(statement)) {
                 try (var rs = ps.executeQuery()) {
                     while (rs.next()) {
-                        result.add(readGame(rs));
+                        GameData game = readGame(rs);
+                        result.put(game.gameID(), game);
                     }
                 }
             }
+            replayMoves(conn, result);
         } catch (Exception e) {
             throw new DataAccessException(String.format("Unable to read data: %s", e.getMessage()));
         }
-        return result.toArray(new GameData[0]);
+        return result.values().toArray(new GameData[0]);
+    }
+
+    /**
+     * Reads only the columns shown in a listing, never the game column, so
+     * no game is read or replayed
+     */
+    @Override
+    public GameSummary[] listGameSummaries() throws DataAccessException {
+        return querySummaries("SELECT gameID, whiteUsername, blackUsername, gameName FROM game ORDER BY gameID", 16);
+    }
+
+    /**
+     * Reads only the columns shown in a listing, and lets the primary key
+     * index find the first game after the cursor
+     */
+    @Override
+    public GameSummary[] listGameSummaries(GameQuery query) throws DataAccessException {
+        StringBuilder statement = new StringBuilder(
+                "SELECT gameID, whiteUsername, blackUsername, gameName FROM game WHERE gameID > ?");
+        List<Object> params = new ArrayList<>();
+        params.add(query.afterGameID());
+        if (query.openSeat()) {
+            statement.append(" AND (whiteUsername IS NULL OR blackUsername IS NULL)");
+        }
+        if (query.player() != null) {
+            statement.append(" AND (whiteUsername = ? OR blackUsername = ?)");
+            params.add(query.player());
+            params.add(query.player());
+        }
+        if (query.finished() != null) {
+            statement.append(" AND finished = ?");
+            params.add(query.finished());
+        }
+        statement.append(" ORDER BY gameID LIMIT ?");
+        params.add(query.limit());
+        return querySummaries(statement.toString(), query.limit(), params.toArray());
+    }
+
+    private GameSummary[] querySummaries(String statement, int expected, Object... params) throws DataAccessException {
+        List<GameSummary> summaries = new ArrayList<>(expected);
+        try (var conn = DatabaseManager.getConnection()) {
+            try (var ps = conn.prepareStatement(statement)) {
+                setParameters(ps, params);
+                try (var rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        summaries.add(new GameSummary(rs.getInt("gameID"), rs.getString("whiteUsername"),
+                                rs.getString("blackUsername"), rs.getString("gameName")));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("Unable to read data: %s", e.getMessage()));
+        }
+        return summaries.toArray(new GameSummary[0]);
     }
 
     @Override
     public void updateGame(GameData updatedGame) throws DataAccessException {
-        String statement = "UPDATE game SET whiteUsername=?, blackUsername=?, gameName=?, game=? WHERE gameID=?";
-        executeUpdate(
-                statement,
-                updatedGame.whiteUsername(),
-                updatedGame.blackUsername(),
-                updatedGame.gameName(),
-                updatedGame.game(),
-                updatedGame.gameID()
-        );
+        updateGames(List.of(updatedGame));
+    }
+
+    /**
+     * Stores each game as a new snapshot. Logged moves past the snapshot are
+     * dropped, so that the stored game is exactly the one given.
+     */
+    @Override
+    public void updateGames(List<GameData> updatedGames) throws DataAccessException {
+        List<Object[]> deletes = new ArrayList<>(updatedGames.size());
+        List<Object[]> rows = new ArrayList<>(updatedGames.size());
+        for (GameData game : updatedGames) {
+            deletes.add(new Object[]{game.gameID(), game.game().getPly()});
+            rows.add(updateParameters(game));
+        }
+        Map<String, List<Object[]>> batches = new LinkedHashMap<>();
+        batches.put(DELETE_LATER_MOVES, deletes);
+        batches.put(UPDATE_GAME, rows);
+        executeBatches(batches);
+    }
+
+    private static Object[] updateParameters(GameData game) {
+        return new Object[]{
+                game.whiteUsername(),
+                game.blackUsername(),
+                game.gameName(),
+                game.game(),
+                game.game().getPly(),
+                game.game().isOver(),
+                game.gameID()
+        };
+    }
+
+    /**
+     * Appends the moves to the game's log, and writes a new snapshot when the
+     * moves cross a multiple of the snapshot interval or end the game, all in
+     * one transaction. The players and name of the game are left untouched.
+     */
+    @Override
+    public void addMoves(GameData updatedGame, List<ChessMove> moves) throws DataAccessException {
+        if (!DatabaseManager.moveLog()) {
+            updateGame(updatedGame);
+            return;
+        }
+        ChessGame game = updatedGame.game();
+        int lastPly = game.getPly();
+        int firstPly = lastPly - moves.size() + 1;
+        List<Object[]> rows = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            rows.add(new Object[]{updatedGame.gameID(), firstPly + i, GameCodec.encodeMove(moves.get(i))});
+        }
+        Map<String, List<Object[]>> batches = new LinkedHashMap<>();
+        batches.put(INSERT_MOVE, rows);
+        int interval = DatabaseManager.snapshotInterval();
+        if (game.isOver() || (interval > 0 && (firstPly - 1) / interval != lastPly / interval)) {
+            batches.put(UPDATE_SNAPSHOT, List.<Object[]>of(new Object[]{game, lastPly, game.isOver(), updatedGame.gameID()}));
+        }
+        executeBatches(batches);
     }
 
     @Override
@@ -99,10 +230,55 @@ public class SQLGameDAO extends SQLDAO implements GameDAO {
             String whiteUsername = rs.getString("whiteUsername");
             String blackUsername = rs.getString("blackUsername");
             String gameName = rs.getString("gameName");
-            ChessGame game = new Gson().fromJson(rs.getString("game"), ChessGame.class);
+            ChessGame game = GameColumn.read(rs.getBytes("game"));
+            game.setPly(rs.getInt("snapshot_ply"));
             return new GameData(gameID, whiteUsername, blackUsername, gameName, game);
         } catch (SQLException e) {
             throw new DataAccessException(String.format("Unable to read data: %s", e.getMessage()));
         }
     }
+
+    private void replayMoves(Connection conn, ChessGame game, int gameID) throws SQLException, DataAccessException {
+        String statement = "SELECT gameID, ply, move FROM game_move WHERE gameID=? AND ply>? ORDER BY ply";
+        try (var ps = conn.prepareStatement(statement)) {
+            ps.setInt(1, gameID);
+            ps.setInt(2, game.getPly());
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    replayMove(game, rs);
+                }
+            }
+        }
+    }
+
+    private void replayMoves(Connection conn, Map<Integer, GameData> games) throws SQLException, DataAccessException {
+        String statement = """
+                SELECT m.gameID, m.ply, m.move FROM game_move m JOIN game g ON g.gameID = m.gameID
+                WHERE m.ply > g.snapshot_ply ORDER BY m.gameID, m.ply
+                """;
+        try (var ps = conn.prepareStatement(statement)) {
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    GameData game = games.get(rs.getInt("gameID"));
+                    if (game != null) {
+                        replayMove(game.game(), rs);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void replayMove(ChessGame game, ResultSet rs) throws SQLException, DataAccessException {
+        int ply = rs.getInt("ply");
+        if (ply != game.getPly() + 1) {
+            throw new DataAccessException(String.format("Move log of game %d skips from ply %d to %d",
+                    rs.getInt("gameID"), game.getPly(), ply));
+        }
+        try {
+            game.makeMove(GameCodec.decodeMove(rs.getInt("move")));
+        } catch (InvalidMoveException | IllegalArgumentException e) {
+            throw new DataAccessException(String.format("Unable to replay move %d of game %d: %s",
+                    ply, rs.getInt("gameID"), e.getMessage()));
+        }
+    }
 }
@@ -0,0 +1,392 @@
+package dataaccess;
+
+import chess.ChessMove;
+import model.GameData;
+import model.GameSummary;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps games that are being played in memory and writes their updates to the
+ * underlying DAO in the background, so that a move does not wait on the
+ * database.
+ * <p>
+ * Once a game has been read or updated, this store is authoritative for it:
+ * reads return the in-memory copy, and updates replace it. Updates are
+ * coalesced, so only the latest state of each game is written, and everything
+ * pending is written together every {@code flushIntervalMillis}. That interval
+ * is how much play can be lost if the server dies. Moves are kept in order and
+ * handed to the underlying DAO together, so a store that logs moves still logs
+ * every one of them. A game that ends is written immediately and dropped from
+ * memory, as is a game with nothing left to write that has not been used for
+ * {@code idleMillis}, and {@link #close()} writes everything still pending.
+ */
+public class WriteBehindGameDAO implements GameDAO, AutoCloseable {
+    private static final int MAX_RETRY_WAIT = 64;
+    private static final System.Logger LOGGER = System.getLogger(WriteBehindGameDAO.class.getName());
+
+    private final GameDAO delegate;
+    private final Map<Integer, GameData> active = new ConcurrentHashMap<>();
+    private final Map<Integer, GameData> pending = new ConcurrentHashMap<>();
+    private final Map<Integer, PendingMoves> pendingMoves = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> lastUsed = new ConcurrentHashMap<>();
+    private final Map<Integer, Retry> retrying = new ConcurrentHashMap<>();
+    private final LongAdder failedWrites = new LongAdder();
+    private long flushes;
+    private final long idleNanos;
+    private final ScheduledExecutorService flusher;
+
+    public record Metrics(long failedWrites, int retryingGames) {
+    }
+
+    public WriteBehindGameDAO(GameDAO delegate, long flushIntervalMillis) {
+        this(delegate, flushIntervalMillis, TimeUnit.MINUTES.toMillis(10));
+    }
+
+    public WriteBehindGameDAO(GameDAO delegate, long flushIntervalMillis, long idleMillis) {
+        this.delegate = delegate;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Holds the flush lock, so that a batch in progress cannot land in the
+     * store after it has been emptied
+     */
+    @Override
+    public synchronized void clear() throws DataAccessException {
+        pendingMoves.clear();
+        pending.clear();
+        retrying.clear();
+        active.clear();
+        lastUsed.clear();
+        delegate.clear();
+    }
+
+    @Override
+    public int addGame(GameData game) throws DataAccessException {
+        return delegate.addGame(game);
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        lastUsed.put(gameID, System.nanoTime());
+        GameData game = active.get(gameID);
+        if (game != null) {
+            return game;
+        }
+        game = delegate.getGame(gameID);
+        if (game == null) {
+            lastUsed.remove(gameID);
+            return null;
+        }
+        GameData current = active.putIfAbsent(gameID, game);
+        return (current == null) ? game : current;
+    }
+
+    /**
+     * Lists the stored games, with any game held in memory shown in its current state
+     */
+    @Override
+    public GameData[] listGames() throws DataAccessException {
+        GameData[] games = delegate.listGames();
+        for (int i = 0; i < games.length; i++) {
+            GameData current = active.get(games[i].gameID());
+            if (current != null) {
+                games[i] = current;
+            }
+        }
+        return games;
+    }
+
+    @Override
+    public GameSummary[] listGameSummaries() throws DataAccessException {
+        GameSummary[] summaries = delegate.listGameSummaries();
+        for (int i = 0; i < summaries.length; i++) {
+            GameData current = active.get(summaries[i].gameID());
+            if (current != null) {
+                summaries[i] = GameSummary.of(current);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Lets the underlying store find the page without writing anything first,
+     * then shows games held in memory as they stand. Since a game in memory
+     * may pass the filters where the stored one does not, or the other way
+     * round, games in memory are checked again and added or dropped, and
+     * further pages are read while dropped games leave this one short.
+     */
+    @Override
+    public GameSummary[] listGameSummaries(GameQuery query) throws DataAccessException {
+        TreeMap<Integer, GameSummary> page = new TreeMap<>();
+        int after = query.afterGameID();
+        while (true) {
+            GameSummary[] stored = delegate.listGameSummaries(
+                    new GameQuery(after, query.limit(), query.openSeat(), query.player(), query.finished()));
+            boolean more = stored.length == query.limit();
+            int through = more ? stored[stored.length - 1].gameID() : Integer.MAX_VALUE;
+            for (GameSummary summary : stored) {
+                if (!active.containsKey(summary.gameID())) {
+                    page.put(summary.gameID(), summary);
+                }
+            }
+            for (GameData current : active.values()) {
+                if (current.gameID() > after && current.gameID() <= through && query.matches(current)) {
+                    page.put(current.gameID(), GameSummary.of(current));
+                }
+            }
+            if (!more || page.size() >= query.limit()) {
+                return page.values().stream().limit(query.limit()).toArray(GameSummary[]::new);
+            }
+            after = through;
+        }
+    }
+
+    @Override
+    public void updateGame(GameData updatedGame) throws DataAccessException {
+        int gameID = updatedGame.gameID();
+        GameData snapshot = snapshot(updatedGame);
+        if (updatedGame.game() != null && updatedGame.game().isOver()) {
+            writeFinished(snapshot, List.of(), true);
+            return;
+        }
+        lastUsed.put(gameID, System.nanoTime());
+        active.put(gameID, updatedGame);
+        pending.put(gameID, snapshot);
+    }
+
+    @Override
+    public void addMoves(GameData updatedGame, List<ChessMove> moves) throws DataAccessException {
+        GameData snapshot = snapshot(updatedGame);
+        if (updatedGame.game().isOver()) {
+            writeFinished(snapshot, moves, false);
+            return;
+        }
+        lastUsed.put(updatedGame.gameID(), System.nanoTime());
+        active.put(updatedGame.gameID(), updatedGame);
+        pendingMoves.merge(updatedGame.gameID(), new PendingMoves(snapshot, List.copyOf(moves)), PendingMoves::followedBy);
+        // A pending update must not store an older game than the moves written before it
+        pending.computeIfPresent(updatedGame.gameID(), (gameID, older) -> snapshot);
+    }
+
+    /**
+     * Writes a game that has ended along with anything still pending for it.
+     * Holding the flush lock keeps a batch in progress from landing after this
+     * write. If the write fails, it is left pending for the next flush.
+     */
+    private synchronized void writeFinished(GameData game, List<ChessMove> moves, boolean updated)
+            throws DataAccessException {
+        int gameID = game.gameID();
+        PendingMoves earlier = pendingMoves.remove(gameID);
+        PendingMoves all = new PendingMoves(game, moves);
+        if (earlier != null) {
+            all = earlier.followedBy(all);
+        }
+        boolean rowChanged = pending.remove(gameID) != null || updated;
+        try {
+            if (!all.moves().isEmpty()) {
+                delegate.addMoves(game, all.moves());
+            }
+            if (rowChanged) {
+                delegate.updateGame(game);
+            }
+        } catch (DataAccessException | RuntimeException e) {
+            pendingMoves.merge(gameID, all, (newer, failed) -> failed.followedBy(newer));
+            if (rowChanged) {
+                pending.putIfAbsent(gameID, game);
+            }
+            throw e;
+        }
+        active.remove(gameID);
+        lastUsed.remove(gameID);
+    }
+
+    @Override
+    public void updateGames(List<GameData> games) throws DataAccessException {
+        for (GameData game : games) {
+            updateGame(game);
+        }
+    }
+
+    @Override
+    public int getSize() throws DataAccessException {
+        return delegate.getSize();
+    }
+
+    /**
+     * Writes the pending moves of each game, then every other pending update
+     * in one batch. A game whose write fails is never dropped: its moves stay
+     * ahead of any made since, its update stays unless a newer one replaced
+     * it, and its update waits for its moves. It is taken out of the batch and
+     * retried on its own, waiting twice as many flushes after each failure, up
+     * to {@value #MAX_RETRY_WAIT} flushes, so it cannot hold up other games.
+     * If the batch fails, its updates are written one at a time to find the
+     * games at fault.
+     */
+    public synchronized void flush() {
+        flushes++;
+        Set<Integer> due = new HashSet<>();
+        retrying.forEach((gameID, retry) -> {
+            if (retry.nextFlush() <= flushes) {
+                due.add(gameID);
+            }
+        });
+        Set<Integer> failed = new HashSet<>();
+        for (Integer gameID : pendingMoves.keySet()) {
+            if (retrying.containsKey(gameID) && !due.contains(gameID)) {
+                continue;
+            }
+            PendingMoves moves = pendingMoves.remove(gameID);
+            if (moves == null) {
+                continue;
+            }
+            try {
+                delegate.addMoves(moves.game(), moves.moves());
+            } catch (DataAccessException | RuntimeException e) {
+                pendingMoves.merge(gameID, moves, (newer, older) -> older.followedBy(newer));
+                failed(gameID, e);
+                failed.add(gameID);
+            }
+        }
+        List<GameData> batch = new ArrayList<>();
+        List<GameData> alone = new ArrayList<>();
+        for (GameData game : pending.values()) {
+            int gameID = game.gameID();
+            if (failed.contains(gameID)) {
+                continue;
+            }
+            if (!retrying.containsKey(gameID)) {
+                batch.add(game);
+            } else if (due.contains(gameID)) {
+                alone.add(game);
+            }
+        }
+        if (!batch.isEmpty()) {
+            try {
+                delegate.updateGames(batch);
+                batch.forEach(written -> pending.remove(written.gameID(), written));
+            } catch (DataAccessException | RuntimeException batchFailure) {
+                alone.addAll(batch);
+            }
+        }
+        for (GameData game : alone) {
+            try {
+                delegate.updateGame(game);
+                pending.remove(game.gameID(), game);
+            } catch (DataAccessException | RuntimeException e) {
+                failed(game.gameID(), e);
+                failed.add(game.gameID());
+            }
+        }
+        for (Integer gameID : due) {
+            if (!failed.contains(gameID)) {
+                Retry retry = retrying.remove(gameID);
+                LOGGER.log(System.Logger.Level.INFO, "Wrote game " + gameID + " after "
+                        + retry.failures() + " failed attempts");
+            }
+        }
+        evictIdle();
+    }
+
+    private void failed(int gameID, Exception e) {
+        failedWrites.increment();
+        Retry retry = retrying.merge(gameID, new Retry(1, flushes + 1),
+                (earlier, first) -> earlier.after(flushes));
+        LOGGER.log(System.Logger.Level.ERROR, "Unable to write game " + gameID + " (" + retry.failures()
+                + " failures in a row), will retry in " + (retry.nextFlush() - flushes) + " flushes: "
+                + e.getMessage());
+    }
+
+    /**
+     * How often in a row a game has failed to be written, and the flush that
+     * next tries it
+     */
+    private record Retry(int failures, long nextFlush) {
+        Retry after(long flush) {
+            int wait = 1 << Math.min(failures, 6);
+            return new Retry(failures + 1, flush + Math.min(wait, MAX_RETRY_WAIT));
+        }
+    }
+
+    /**
+     * @return failed writes to the underlying DAO since this store was
+     * created, and the number of games waiting to be retried
+     */
+    public Metrics metrics() {
+        return new Metrics(failedWrites.sum(), retrying.size());
+    }
+
+    /**
+     * Drops games with nothing left to write that have not been used for a
+     * while, so memory holds only games being played and the store's copy of
+     * the others is read afresh. A game is used before it is put back, so one
+     * used again while this runs is either kept or put back right after.
+     */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        for (Integer gameID : active.keySet()) {
+            active.computeIfPresent(gameID, (id, game) -> {
+                Long used = lastUsed.get(id);
+                boolean idle = used == null || now - used >= idleNanos;
+                if (!idle || pending.containsKey(id) || pendingMoves.containsKey(id)) {
+                    return game;
+                }
+                lastUsed.remove(id, used);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Moves not yet written for a game, oldest first, with the game as it
+     * stands after the last of them
+     */
+    private record PendingMoves(GameData game, List<ChessMove> moves) {
+        PendingMoves followedBy(PendingMoves later) {
+            List<ChessMove> all = new ArrayList<>(moves.size() + later.moves.size());
+            all.addAll(moves);
+            all.addAll(later.moves);
+            return new PendingMoves(later.game, all);
+        }
+    }
+
+    /**
+     * The caller goes on changing the game it passed in, so what gets written
+     * later must be a copy of its state at the time of the update.
+     */
+    private static GameData snapshot(GameData game) {
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                (game.game() == null) ? null : game.game().copy());
+    }
+
+    /**
+     * Stops the background writer and writes everything still pending
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -5,20 +5,26 @@ import dataaccess.*;
 import model.UserData;
 import request.CreateGameRequest;
 import request.JoinGameRequest;
+import request.ListGamesRequest;
 import request.LoginRequest;
+import serialization.Serializer;
 import service.ClearService;
+import service.GameLocks;
 import service.GameService;
 import service.ServiceException;
 import service.UserService;
 import spark.*;
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
 import websocket.WebSocketHandler;
 
 public class Server {
-    private final Gson serializer = new Gson();
+    private final Gson serializer = Serializer.GSON;
     private final UserService userService;
     private final GameService gameService;
     private final ClearService clearService;
     private final WebSocketHandler webSocketHandler;
+    private final GameDAO gameDataAccess;
 
     public Server() {
         UserDAO userDataAccess;
@@ -27,19 +33,30 @@ public class Server {
         try {
             userDataAccess = new SQLUserDAO();
             authDataAccess = new SQLAuthDAO();
+            if (DatabaseManager.authCacheSize() > 0) {
+                authDataAccess = new CachingAuthDAO(authDataAccess,
+                        DatabaseManager.authCacheSize(), DatabaseManager.authCacheTtlMillis());
+            }
             gameDataAccess = new SQLGameDAO();
+            if (DatabaseManager.writeBehindMillis() > 0) {
+                gameDataAccess = new WriteBehindGameDAO(gameDataAccess,
+                        DatabaseManager.writeBehindMillis(), DatabaseManager.writeBehindIdleMillis());
+            }
         } catch (DataAccessException ex) {
             userDataAccess = new MemoryUserDAO();
             authDataAccess = new MemoryAuthDAO();
             gameDataAccess = new MemoryGameDAO();
         }
-        webSocketHandler = new WebSocketHandler();
+        this.gameDataAccess = gameDataAccess;
+        GameLocks gameLocks = new GameLocks();
+        webSocketHandler = new WebSocketHandler(gameDataAccess, authDataAccess, gameLocks);
         userService = new UserService(userDataAccess, authDataAccess);
-        gameService = new GameService(gameDataAccess, authDataAccess);
+        gameService = new GameService(gameDataAccess, authDataAccess, gameLocks);
         clearService = new ClearService(gameDataAccess, userDataAccess, authDataAccess);
     }
 
     public int run(int desiredPort) {
+        EmbeddedServers.add(EmbeddedServers.Identifiers.JETTY, jettyFactory());
         Spark.port(desiredPort);
 
         Spark.staticFiles.location("web");
@@ -63,6 +80,23 @@ public class Server {
     public void stop() {
         Spark.stop();
         Spark.awaitStop();
+        if (gameDataAccess instanceof WriteBehindGameDAO writeBehind) {
+            writeBehind.close();
+        }
+    }
+
+    /**
+     * With the server.virtualThreads system property set, requests and
+     * websocket messages are handled on virtual threads, at most
+     * server.maxConcurrency (default 10000) at a time, instead of on Jetty's
+     * bounded pool of platform threads.
+     */
+    private static EmbeddedJettyFactory jettyFactory() {
+        EmbeddedJettyFactory factory = new EmbeddedJettyFactory();
+        if (Boolean.getBoolean("server.virtualThreads")) {
+            factory.withThreadPool(new VirtualThreadPool(Integer.getInteger("server.maxConcurrency", 10_000)));
+        }
+        return factory;
     }
 
     private void serviceExceptionHandler(ServiceException e, Request req, Response res) {
@@ -97,9 +131,32 @@ public class Server {
         return "";
     }
 
+    /**
+     * Without query parameters every game is listed. Any of cursor, limit,
+     * open, player or status asks for one page instead, see
+     * {@link ListGamesRequest}.
+     */
     private String listGames(Request req, Response res) throws Exception {
         String authToken = req.headers("authorization");
-        return serializer.toJson(gameService.listGames(authToken));
+        if (req.queryParams().isEmpty()) {
+            return serializer.toJson(gameService.listGames(authToken));
+        }
+        ListGamesRequest request = new ListGamesRequest(
+                req.queryParams("cursor"),
+                intParam(req, "limit"),
+                Boolean.parseBoolean(req.queryParams("open")),
+                req.queryParams("player"),
+                req.queryParams("status"));
+        return serializer.toJson(gameService.listGames(authToken, request));
+    }
+
+    private static Integer intParam(Request req, String name) throws ServiceException {
+        String value = req.queryParams(name);
+        try {
+            return (value == null) ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ServiceException(400, "Error: bad request");
+        }
     }
 
     private String createGame(Request req, Response res) throws Exception {
@@ -0,0 +1,99 @@
+package server;
+
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Jetty thread pool that runs every task on a new virtual thread, so that a
+ * request or websocket command blocked on the database or on a slow client
+ * holds no platform thread. At most {@code maxConcurrency} tasks run at once;
+ * further tasks wait, without a thread of their own blocking, until one
+ * finishes. Jetty's own acceptor and selector loops are tasks too and each
+ * hold a permit for as long as the server runs.
+ * <p>
+ * A virtual thread that blocks inside {@code synchronized} stays on its
+ * carrier thread, so code run here must not wait on I/O while holding a
+ * monitor. MySQL Connector/J only stopped doing so in 9.0, which is why the
+ * server depends on that version or later.
+ */
+public class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final ThreadFactory threads = Thread.ofVirtual().name("jetty-virtual-", 0).factory();
+    private final AtomicInteger running = new AtomicInteger();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    public VirtualThreadPool(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be positive: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (stopped.getCount() == 0) {
+            throw new RejectedExecutionException("Thread pool is stopped");
+        }
+        threads.newThread(() -> run(task)).start();
+    }
+
+    private void run(Runnable task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            return;
+        }
+        running.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            running.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        stopped.countDown();
+        super.doStop();
+    }
+
+    @Override
+    public void join() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * @return the number of tasks running now
+     */
+    @Override
+    public int getThreads() {
+        return running.get();
+    }
+
+    /**
+     * @return how many more tasks could start right away, since virtual
+     * threads are not kept idle
+     */
+    @Override
+    public int getIdleThreads() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public boolean isLowOnThreads() {
+        return permits.availablePermits() == 0;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+}
@@ -0,0 +1,36 @@
+package service;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes changes to each game. Whoever reads a game in order to change it
+ * holds the game's lock from the read until the write, so two moves, or a move
+ * and a join, in the same game cannot both start from the same state and
+ * overwrite each other. The locks are fair, so changes to a game apply in the
+ * order they arrived.
+ * <p>
+ * Games share a fixed set of locks by ID rather than each having its own, which
+ * keeps memory bounded however many games are played. Different games run in
+ * parallel unless they happen to share a lock, and then only wait for each
+ * other briefly.
+ */
+public class GameLocks {
+    private static final int STRIPES = 1024;
+
+    private final Lock[] locks = new Lock[STRIPES];
+
+    public GameLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * @return the lock to hold while reading and then updating the game
+     */
+    public Lock forGame(int gameID) {
+        int hash = Integer.hashCode(gameID);
+        return locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+}
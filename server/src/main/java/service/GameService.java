@@ -3,25 +3,87 @@ package service;
 import chess.ChessGame;
 import dataaccess.AuthDAO;
 import dataaccess.GameDAO;
+import dataaccess.GameQuery;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
 import response.CreateGameResponse;
 import request.JoinGameRequest;
+import request.ListGamesRequest;
 import response.ListGamesResponse;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.locks.Lock;
+
 public class GameService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final GameDAO gameDataAccess;
     private final AuthDAO authDataAccess;
+    private final GameLocks gameLocks;
 
     public GameService(GameDAO gameDataAccess, AuthDAO authDataAccess) {
+        this(gameDataAccess, authDataAccess, new GameLocks());
+    }
+
+    public GameService(GameDAO gameDataAccess, AuthDAO authDataAccess, GameLocks gameLocks) {
         this.gameDataAccess = gameDataAccess;
         this.authDataAccess = authDataAccess;
+        this.gameLocks = gameLocks;
     }
 
     public ListGamesResponse listGames(String authToken) throws Exception {
         AuthData auth = authDataAccess.getAuth(authToken);
         UserService.authenticate(auth);
-        return new ListGamesResponse(gameDataAccess.listGames());
+        return new ListGamesResponse(gameDataAccess.listGameSummaries());
+    }
+
+    /**
+     * Lists one page of games. The response's next
+     * cursor is set whenever the page is full, and asking for it returns the
+     * games after this page.
+     */
+    public ListGamesResponse listGames(String authToken, ListGamesRequest request) throws Exception {
+        AuthData auth = authDataAccess.getAuth(authToken);
+        UserService.authenticate(auth);
+        int limit = (request.limit() == null) ? DEFAULT_PAGE_SIZE : request.limit();
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ServiceException(400, "Error: bad request");
+        }
+        GameQuery query = new GameQuery(afterGameID(request.cursor()), limit, request.openSeat(),
+                request.player(), finished(request.status()));
+        GameSummary[] games = gameDataAccess.listGameSummaries(query);
+        String next = (games.length == limit) ? cursor(games[games.length - 1].gameID()) : null;
+        return new ListGamesResponse(games, next);
+    }
+
+    private static String cursor(int gameID) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                Integer.toString(gameID).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static int afterGameID(String cursor) throws ServiceException {
+        if (cursor == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new ServiceException(400, "Error: bad request");
+        }
+    }
+
+    private static Boolean finished(String status) throws ServiceException {
+        if (status == null) {
+            return null;
+        }
+        return switch (status.toLowerCase()) {
+            case "active" -> false;
+            case "finished" -> true;
+            default -> throw new ServiceException(400, "Error: bad request");
+        };
     }
 
     public CreateGameResponse createGame(String gameName, String authToken) throws Exception {
@@ -34,6 +96,16 @@ public class GameService {
     public void joinGame(JoinGameRequest request, String authToken) throws Exception {
         AuthData auth = authDataAccess.getAuth(authToken);
         UserService.authenticate(auth);
+        Lock lock = gameLocks.forGame(request.gameID());
+        lock.lock();
+        try {
+            claimColor(request, auth);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void claimColor(JoinGameRequest request, AuthData auth) throws Exception {
         GameData game = gameDataAccess.getGame(request.gameID());
         String requestedColor = request.playerColor();
         if (game == null || requestedColor == null) {
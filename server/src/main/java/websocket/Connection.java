@@ -1,19 +1,168 @@
 package websocket;
 
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.ServerMessage;
 
-import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
+/**
+ * One client's websocket in a game. Messages are sent asynchronously, one at a
+ * time and in order, so sending never waits on the client. Messages sent while
+ * an earlier one is still being written wait in a queue of at most
+ * {@code maxQueued} messages. A client whose queue fills up is too slow to keep
+ * up, and is handled by the {@link SlowConsumerPolicy}.
+ */
 public class Connection {
+    private static final System.Logger LOGGER = System.getLogger(Connection.class.getName());
+
+    /**
+     * Queue length used when the server.sendQueueSize system property is not set
+     */
+    public static final int DEFAULT_MAX_QUEUED = 256;
+
+    public enum SlowConsumerPolicy {
+        /**
+         * Close the connection, so the client reconnects and reloads the game
+         */
+        DISCONNECT,
+        /**
+         * Drop the oldest queued message, since later game states supersede
+         * earlier ones
+         */
+        DROP_OLDEST
+    }
+
     public String authToken;
     public Session session;
+    public LoadGameMessage.Format gameFormat;
+
+    /**
+     * Whether the client is sent each move rather than the whole game
+     */
+    public boolean moveUpdates;
+    private final int maxQueued;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final Deque<String> outbound = new ArrayDeque<>();
+    private boolean writing;
+    private boolean closed;
+
+    private final WriteCallback writeNext = new WriteCallback() {
+        @Override
+        public void writeSuccess() {
+            writeNext();
+        }
+
+        @Override
+        public void writeFailed(Throwable cause) {
+            close();
+        }
+    };
 
     public Connection(String authToken, Session session) {
+        this(authToken, session, LoadGameMessage.Format.JSON);
+    }
+
+    public Connection(String authToken, Session session, LoadGameMessage.Format gameFormat) {
+        this(authToken, session, gameFormat, Integer.getInteger("server.sendQueueSize", DEFAULT_MAX_QUEUED),
+                SlowConsumerPolicy.valueOf(System.getProperty("server.slowConsumerPolicy", "DISCONNECT").toUpperCase()));
+    }
+
+    public Connection(String authToken, Session session, LoadGameMessage.Format gameFormat,
+                      int maxQueued, SlowConsumerPolicy slowConsumerPolicy) {
         this.authToken = authToken;
         this.session = session;
+        this.gameFormat = gameFormat;
+        this.maxQueued = maxQueued;
+        this.slowConsumerPolicy = slowConsumerPolicy;
+    }
+
+    /**
+     * Sends a message, converting games to the format this client asked for
+     */
+    public void send(ServerMessage message) {
+        send(new Payload(message));
+    }
+
+    /**
+     * Sends a message shared with other connections, in this client's format
+     */
+    void send(Payload payload) {
+        send(payload.text(gameFormat));
+    }
+
+    /**
+     * Starts sending a message, or queues it behind those still being sent
+     */
+    public void send(String message) {
+        boolean disconnect = false;
+        synchronized (outbound) {
+            if (closed) {
+                return;
+            }
+            if (!writing) {
+                writing = true;
+            } else if (outbound.size() < maxQueued) {
+                outbound.add(message);
+                return;
+            } else if (slowConsumerPolicy == SlowConsumerPolicy.DROP_OLDEST) {
+                outbound.poll();
+                outbound.add(message);
+                LOGGER.log(System.Logger.Level.DEBUG, "Dropped a message to a slow client");
+                return;
+            } else {
+                closed = true;
+                outbound.clear();
+                disconnect = true;
+            }
+        }
+        if (disconnect) {
+            LOGGER.log(System.Logger.Level.WARNING, "Disconnecting a client that is not keeping up with the game");
+            session.close(StatusCode.TRY_AGAIN_LATER, "Too many messages waiting to be sent");
+            return;
+        }
+        write(message);
+    }
+
+    /**
+     * @return the number of messages waiting to be sent
+     */
+    public int queued() {
+        synchronized (outbound) {
+            return outbound.size();
+        }
+    }
+
+    private void writeNext() {
+        String message;
+        synchronized (outbound) {
+            message = outbound.poll();
+            if (message == null) {
+                writing = false;
+                return;
+            }
+        }
+        write(message);
+    }
+
+    private void write(String message) {
+        try {
+            session.getRemote().sendString(message, writeNext);
+        } catch (RuntimeException e) {
+            close();
+        }
     }
 
-    public void send(String message) throws IOException {
-        session.getRemote().sendString(message);
+    /**
+     * Stops sending after a failed write, since the socket is gone
+     */
+    private void close() {
+        synchronized (outbound) {
+            closed = true;
+            outbound.clear();
+        }
     }
 }
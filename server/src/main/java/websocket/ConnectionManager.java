@@ -1,17 +1,29 @@
 package websocket;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.eclipse.jetty.websocket.api.Session;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveMadeMessage;
 import websocket.messages.ServerMessage;
 
 public class ConnectionManager {
     public final ConcurrentHashMap<Integer, ConcurrentHashMap<String, Connection>> connections = new ConcurrentHashMap<>();
 
     public void add(Integer gameID, String authToken, Session session) {
-        Connection connection = new Connection(authToken, session);
+        add(gameID, authToken, session, LoadGameMessage.Format.JSON);
+    }
+
+    public void add(Integer gameID, String authToken, Session session, LoadGameMessage.Format gameFormat) {
+        add(gameID, authToken, session, gameFormat, false);
+    }
+
+    public void add(Integer gameID, String authToken, Session session, LoadGameMessage.Format gameFormat,
+                    boolean moveUpdates) {
+        Connection connection = new Connection(authToken, session, gameFormat);
+        connection.moveUpdates = moveUpdates;
         if (!connections.containsKey(gameID)) {
             connections.put(gameID, new ConcurrentHashMap<>());
         }
@@ -23,13 +35,32 @@ public class ConnectionManager {
         gameConnections.remove(authToken);
     }
 
-    public void broadcast(Integer gameID, String rootUserAuthToken, ServerMessage notification) throws IOException {
+    /**
+     * Sends a message to everyone in the game except the given user. The
+     * message is serialized once and the same text sent to each connection.
+     */
+    public void broadcast(Integer gameID, String rootUserAuthToken, ServerMessage notification) {
+        Payload payload = new Payload(notification);
+        send(gameID, rootUserAuthToken, conn -> payload);
+    }
+
+    /**
+     * Sends everyone in the game the result of a move: just the move to
+     * clients that asked for move updates, and the whole game to the rest
+     */
+    public void sendMove(Integer gameID, LoadGameMessage game, MoveMadeMessage move) {
+        Payload wholeGame = new Payload(game);
+        Payload moveOnly = new Payload(move);
+        send(gameID, null, conn -> conn.moveUpdates ? moveOnly : wholeGame);
+    }
+
+    private void send(Integer gameID, String rootUserAuthToken, Function<Connection, Payload> payloads) {
         ArrayList<Connection> oldConnections = new ArrayList<>();
         ConcurrentHashMap<String, Connection> gameConnections = connections.get(gameID);
         for (Connection conn : gameConnections.values()) {
             if (conn.session.isOpen()) {
                 if (!conn.authToken.equals(rootUserAuthToken)) {
-                    conn.send(notification.toString());
+                    conn.send(payloads.apply(conn));
                 }
             } else {
                 oldConnections.add(conn);
@@ -43,8 +74,20 @@ public class ConnectionManager {
         }
     }
 
-    public void inform(Integer gameID, String rootUserAuthToken, ServerMessage notification) throws IOException {
+    /**
+     * Sends a message to everyone in the game, serializing it only once
+     */
+    public void sendToGame(Integer gameID, ServerMessage notification) {
+        broadcast(gameID, null, notification);
+    }
+
+    public boolean isConnected(Integer gameID, String authToken) {
+        ConcurrentHashMap<String, Connection> gameConnections = connections.get(gameID);
+        return gameConnections != null && gameConnections.containsKey(authToken);
+    }
+
+    public void inform(Integer gameID, String rootUserAuthToken, ServerMessage notification) {
         Connection conn = connections.get(gameID).get(rootUserAuthToken);
-        conn.send(notification.toString());
+        conn.send(notification);
     }
 }
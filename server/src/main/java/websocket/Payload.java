@@ -0,0 +1,38 @@
+package websocket;
+
+import websocket.messages.LoadGameMessage;
+import websocket.messages.ServerMessage;
+
+/**
+ * A message on its way to several connections. It is serialized at most once
+ * for each game format the recipients asked for, however many recipients
+ * there are, and the same text is then written to each of them.
+ */
+final class Payload {
+    private final ServerMessage message;
+    private final String[] text = new String[LoadGameMessage.Format.values().length];
+
+    Payload(ServerMessage message) {
+        this.message = message;
+    }
+
+    /**
+     * @return the message as sent to a client that asked for games in the
+     * given format
+     */
+    String text(LoadGameMessage.Format format) {
+        if (!(message instanceof LoadGameMessage)) {
+            format = LoadGameMessage.Format.JSON;
+        }
+        String serialized = text[format.ordinal()];
+        if (serialized == null) {
+            ServerMessage converted = message;
+            if (message instanceof LoadGameMessage loadGame && format != LoadGameMessage.Format.JSON) {
+                converted = new LoadGameMessage(loadGame.getChessGame(), format);
+            }
+            serialized = converted.toString();
+            text[format.ordinal()] = serialized;
+        }
+        return serialized;
+    }
+}
@@ -3,56 +3,69 @@ package websocket;
 import chess.ChessGame;
 import chess.ChessMove;
 import chess.InvalidMoveException;
-import com.google.gson.Gson;
 import dataaccess.*;
 import model.AuthData;
 import model.GameData;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import serialization.Serializer;
+import service.GameLocks;
+import websocket.commands.ConnectCommand;
 import websocket.commands.MakeMoveCommand;
 import websocket.commands.UserGameCommand;
 import websocket.messages.ErrorMessage;
 import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveMadeMessage;
 import websocket.messages.NotificationMessage;
 
-import java.io.IOException;
-
-import static websocket.commands.UserGameCommand.CommandType.MAKE_MOVE;
+import java.util.concurrent.locks.Lock;
 
 @WebSocket
 public class WebSocketHandler {
 
     private final ConnectionManager connections = new ConnectionManager();
-    private GameDAO gameDAO;
-    private AuthDAO authDAO;
+    private final GameDAO gameDAO;
+    private final AuthDAO authDAO;
+    private final GameLocks gameLocks;
 
-    public WebSocketHandler() {
-        try {
-            gameDAO = new SQLGameDAO();
-            authDAO = new SQLAuthDAO();
-        } catch (DataAccessException ex) {
-            gameDAO = new MemoryGameDAO();
-            authDAO = new MemoryAuthDAO();
-        }
+    public WebSocketHandler(GameDAO gameDAO, AuthDAO authDAO) {
+        this(gameDAO, authDAO, new GameLocks());
+    }
+
+    public WebSocketHandler(GameDAO gameDAO, AuthDAO authDAO, GameLocks gameLocks) {
+        this.gameDAO = gameDAO;
+        this.authDAO = authDAO;
+        this.gameLocks = gameLocks;
     }
 
+    /**
+     * Commands for one game are handled one at a time, in the order they
+     * arrive, so each sees the game as the previous one left it. Commands
+     * for different games run in parallel. Each command is parsed once,
+     * straight into the class its type calls for.
+     */
     @OnWebSocketMessage
-    public void onMessage(Session session, String message) throws DataAccessException, IOException {
-        UserGameCommand command = new Gson().fromJson(message, UserGameCommand.class);
-        if (command.getCommandType() == MAKE_MOVE) {
-            makeMove(new Gson().fromJson(message, MakeMoveCommand.class), session);
-        } else {
+    public void onMessage(Session session, String message) throws DataAccessException {
+        UserGameCommand command = Serializer.GSON.fromJson(message, UserGameCommand.class);
+        Lock lock = gameLocks.forGame(command.getGameID());
+        lock.lock();
+        try {
             switch (command.getCommandType()) {
-                case CONNECT -> connect(session, command);
+                case CONNECT -> connect(session, (ConnectCommand) command);
+                case MAKE_MOVE -> makeMove((MakeMoveCommand) command, session);
                 case LEAVE -> leave(command);
                 case RESIGN -> resign(command);
+                case RESYNC -> resync(session, command);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
-    private void connect(Session session, UserGameCommand command) throws DataAccessException, IOException {
-        connections.add(command.getGameID(), command.getAuthToken(), session);
+    private void connect(Session session, ConnectCommand command) throws DataAccessException {
+        connections.add(command.getGameID(), command.getAuthToken(), session, command.getGameFormat(),
+                command.wantsMoveUpdates());
         AuthData auth = authDAO.getAuth(command.getAuthToken());
         GameData game = gameDAO.getGame(command.getGameID());
         if (auth == null) {
@@ -82,7 +95,7 @@ public class WebSocketHandler {
         return message;
     }
 
-    private void leave(UserGameCommand command) throws DataAccessException, IOException {
+    private void leave(UserGameCommand command) throws DataAccessException {
         String username = authDAO.getAuth(command.getAuthToken()).username();
         GameData game = gameDAO.getGame(command.getGameID());
         String whiteUser = game.whiteUsername();
@@ -106,7 +119,7 @@ public class WebSocketHandler {
         connections.broadcast(command.getGameID(), command.getAuthToken(), new NotificationMessage(message));
     }
 
-    private void resign(UserGameCommand command) throws DataAccessException, IOException {
+    private void resign(UserGameCommand command) throws DataAccessException {
         GameData gameData = gameDAO.getGame(command.getGameID());
         String username = authDAO.getAuth(command.getAuthToken()).username();
         if (gameData.game().isOver()) {
@@ -115,14 +128,33 @@ public class WebSocketHandler {
             gameData.game().setOver(true);
             gameDAO.updateGame(gameData);
             String message = String.format("%s has resigned!", username);
-            connections.inform(command.getGameID(), command.getAuthToken(), new NotificationMessage(message));
-            connections.broadcast(command.getGameID(), command.getAuthToken(), new NotificationMessage(message));
+            connections.sendToGame(command.getGameID(), new NotificationMessage(message));
         } else {
             connections.inform(command.getGameID(), command.getAuthToken(), new ErrorMessage("Error: you must be a player to resign!"));
         }
     }
 
-    private void makeMove(MakeMoveCommand command, Session session) throws DataAccessException, IOException {
+    /**
+     * Sends the whole game again to a client whose copy went out of step with
+     * the move updates it was sent
+     */
+    private void resync(Session session, UserGameCommand command) throws DataAccessException {
+        if (!connections.isConnected(command.getGameID(), command.getAuthToken())) {
+            new Connection(command.getAuthToken(), session).send(new ErrorMessage("Error: not connected to this game."));
+            return;
+        }
+        AuthData auth = authDAO.getAuth(command.getAuthToken());
+        GameData game = gameDAO.getGame(command.getGameID());
+        if (auth == null) {
+            connections.inform(command.getGameID(), command.getAuthToken(), new ErrorMessage("Error: unauthorized."));
+        } else if (game == null) {
+            connections.inform(command.getGameID(), command.getAuthToken(), new ErrorMessage("Error: invalid game id."));
+        } else {
+            connections.inform(command.getGameID(), command.getAuthToken(), new LoadGameMessage(game.game()));
+        }
+    }
+
+    private void makeMove(MakeMoveCommand command, Session session) throws DataAccessException {
         GameData gameData = gameDAO.getGame(command.getGameID());
         AuthData authData = authDAO.getAuth(command.getAuthToken());
         if (authData == null) {
@@ -136,7 +168,7 @@ public class WebSocketHandler {
             ChessGame game = gameData.game();
             ChessMove move = command.getMove();
             ChessGame.TeamColor turnColor = game.getTeamTurn();
-            String username = authDAO.getAuth(command.getAuthToken()).username();
+            String username = authData.username();
             String opposingUsername = null;
             ChessGame.TeamColor userColor = null;
             ChessGame.TeamColor opposingColor = null;
@@ -159,25 +191,28 @@ public class WebSocketHandler {
                     String message = String.format("%s made the following move: %s", username, move);
                     NotificationMessage moveNotification = new NotificationMessage(message);
                     NotificationMessage additionalNotification = null;
+                    MoveMadeMessage.Status status = MoveMadeMessage.Status.PLAYING;
                     if (game.isInCheckmate(opposingColor)) {
                         message = String.format("%s is in checkmate! Good game!", opposingUsername);
                         additionalNotification = new NotificationMessage(message);
+                        status = MoveMadeMessage.Status.CHECKMATE;
                         game.setOver(true);
                     } else if (game.isInStalemate(opposingColor)) {
                         message = "Stalemate! The game is over!";
                         additionalNotification = new NotificationMessage(message);
+                        status = MoveMadeMessage.Status.STALEMATE;
                         game.setOver(true);
                     } else if (game.isInCheck(opposingColor)) {
                         message = String.format("%s is in check!", opposingUsername);
                         additionalNotification = new NotificationMessage(message);
+                        status = MoveMadeMessage.Status.CHECK;
                     }
-                    gameDAO.updateGame(gameData);
-                    connections.broadcast(command.getGameID(), command.getAuthToken(), new LoadGameMessage(game));
-                    connections.inform(command.getGameID(), command.getAuthToken(), new LoadGameMessage(game));
+                    gameDAO.addMove(gameData, move);
+                    connections.sendMove(command.getGameID(), new LoadGameMessage(game),
+                            new MoveMadeMessage(move, game, status));
                     connections.broadcast(command.getGameID(), command.getAuthToken(), moveNotification);
                     if (additionalNotification != null) {
-                        connections.broadcast(command.getGameID(), command.getAuthToken(), additionalNotification);
-                        connections.inform(command.getGameID(), command.getAuthToken(), additionalNotification);
+                        connections.sendToGame(command.getGameID(), additionalNotification);
                     }
                 } catch (InvalidMoveException ex) {
                     connections.inform(command.getGameID(), command.getAuthToken(), new ErrorMessage("Error: " + ex.getMessage()));
@@ -0,0 +1,113 @@
+package dataaccess;
+
+import model.AuthData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingAuthDAOTests {
+
+    /**
+     * Counts the lookups that reach the underlying store
+     */
+    private static class CountingAuthDAO extends MemoryAuthDAO {
+        int lookups;
+
+        @Override
+        public AuthData getAuth(String authToken) {
+            lookups++;
+            return super.getAuth(authToken);
+        }
+    }
+
+    private static final AuthData AUTH = new AuthData("token", "user");
+
+    private final AtomicLong now = new AtomicLong();
+    private CountingAuthDAO stored;
+    private CachingAuthDAO authDAO;
+
+    @BeforeEach
+    public void setUp() {
+        stored = new CountingAuthDAO();
+        authDAO = new CachingAuthDAO(stored, 2, 1000, now::get);
+    }
+
+    @Test
+    @DisplayName("Added Token Served from Memory")
+    public void added() throws DataAccessException {
+        authDAO.addAuth(AUTH);
+        assertEquals(AUTH, authDAO.getAuth("token"));
+        assertEquals(AUTH, authDAO.getAuth("token"));
+        assertEquals(0, stored.lookups);
+
+        CachingAuthDAO.Metrics metrics = authDAO.metrics();
+        assertEquals(2, metrics.hits());
+        assertEquals(0, metrics.misses());
+        assertEquals(1.0, metrics.hitRate());
+    }
+
+    @Test
+    @DisplayName("Lookup Read Through Once")
+    public void readThrough() throws DataAccessException {
+        stored.addAuth(AUTH);
+        assertEquals(AUTH, authDAO.getAuth("token"));
+        assertEquals(AUTH, authDAO.getAuth("token"));
+        assertEquals(1, stored.lookups);
+        assertEquals(0.5, authDAO.metrics().hitRate());
+    }
+
+    @Test
+    @DisplayName("Unknown Token Not Cached")
+    public void unknown() throws DataAccessException {
+        assertNull(authDAO.getAuth("token"));
+        stored.addAuth(AUTH);
+        assertEquals(AUTH, authDAO.getAuth("token"));
+        assertEquals(0, authDAO.metrics().hits());
+    }
+
+    @Test
+    @DisplayName("Delete and Clear Invalidate")
+    public void invalidate() throws DataAccessException {
+        authDAO.addAuth(AUTH);
+        authDAO.deleteAuth("token");
+        assertNull(authDAO.getAuth("token"));
+
+        authDAO.addAuth(AUTH);
+        authDAO.clear();
+        assertNull(authDAO.getAuth("token"));
+        assertEquals(0, authDAO.metrics().size());
+    }
+
+    @Test
+    @DisplayName("Expired Token Looked Up Again")
+    public void expiry() throws DataAccessException {
+        authDAO.addAuth(AUTH);
+        now.addAndGet(999_000_000L);
+        authDAO.getAuth("token");
+        assertEquals(0, stored.lookups);
+
+        now.addAndGet(1_000_000L);
+        stored.deleteAuth("token");
+        assertNull(authDAO.getAuth("token"));
+        assertEquals(1, stored.lookups);
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Token Evicted")
+    public void eviction() throws DataAccessException {
+        authDAO.addAuth(new AuthData("a", "user"));
+        authDAO.addAuth(new AuthData("b", "user"));
+        authDAO.getAuth("a");
+        authDAO.addAuth(new AuthData("c", "user"));
+
+        authDAO.getAuth("a");
+        authDAO.getAuth("c");
+        assertEquals(0, stored.lookups);
+        authDAO.getAuth("b");
+        assertEquals(1, stored.lookups);
+    }
+}
@@ -0,0 +1,146 @@
+package dataaccess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTests {
+
+    /**
+     * Stands in for a physical connection, tracking whether it was closed
+     */
+    private static class FakeConnection {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean valid = new AtomicBoolean(true);
+        final Connection connection = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        closed.set(true);
+                        yield null;
+                    }
+                    case "isClosed" -> closed.get();
+                    case "isValid" -> valid.get();
+                    case "getAutoCommit" -> true;
+                    case "getCatalog" -> "chess";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    private final List<FakeConnection> opened = new ArrayList<>();
+
+    private ConnectionPool pool(int min, int max, long borrowTimeout, long idleTimeout, long validationInterval) {
+        ConnectionPool.Config config = new ConnectionPool.Config(min, max, borrowTimeout, idleTimeout, validationInterval, 0);
+        return new ConnectionPool(() -> {
+            FakeConnection fake = new FakeConnection();
+            opened.add(fake);
+            return fake.connection;
+        }, config, false);
+    }
+
+    @Test
+    @DisplayName("Returned Connection Reused")
+    public void reuse() throws Exception {
+        ConnectionPool pool = pool(0, 2, 100, 60_000, 60_000);
+        try (Connection conn = pool.getConnection()) {
+            assertEquals("chess", conn.getCatalog());
+            assertEquals(1, pool.metrics().active());
+        }
+        try (Connection ignored = pool.getConnection()) {
+            assertEquals(1, opened.size());
+        }
+        ConnectionPool.Metrics metrics = pool.metrics();
+        assertEquals(0, metrics.active());
+        assertEquals(1, metrics.idle());
+        assertEquals(2, metrics.borrows());
+        assertFalse(opened.getFirst().closed.get());
+    }
+
+    @Test
+    @DisplayName("Closed Wrapper Rejects Use")
+    public void closedWrapper() throws Exception {
+        ConnectionPool pool = pool(0, 1, 100, 60_000, 60_000);
+        Connection conn = pool.getConnection();
+        conn.close();
+        conn.close();
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::getCatalog);
+        assertEquals(1, pool.metrics().idle());
+    }
+
+    @Test
+    @DisplayName("Borrow Times Out When Exhausted")
+    public void exhausted() throws Exception {
+        ConnectionPool pool = pool(0, 1, 50, 60_000, 60_000);
+        try (Connection ignored = pool.getConnection()) {
+            assertThrows(DataAccessException.class, pool::getConnection);
+        }
+        try (Connection ignored = pool.getConnection()) {
+            assertEquals(1, opened.size());
+        }
+        assertTrue(pool.metrics().maxWaitNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Invalid Connection Replaced on Borrow")
+    public void validation() throws Exception {
+        ConnectionPool pool = pool(0, 1, 100, 60_000, 0);
+        pool.getConnection().close();
+        opened.getFirst().valid.set(false);
+
+        try (Connection ignored = pool.getConnection()) {
+            assertEquals(2, opened.size());
+        }
+        assertTrue(opened.getFirst().closed.get());
+        assertEquals(1, pool.metrics().discarded());
+    }
+
+    @Test
+    @DisplayName("Idle Connections Evicted Down to Minimum")
+    public void idleEviction() throws Exception {
+        ConnectionPool pool = pool(1, 3, 100, 1, 60_000);
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        first.close();
+        second.close();
+        Thread.sleep(5);
+
+        pool.maintain();
+        assertEquals(1, pool.metrics().idle());
+        assertEquals(1, opened.stream().filter(fake -> fake.closed.get()).count());
+    }
+
+    @Test
+    @DisplayName("Maintenance Opens Minimum Connections")
+    public void minimumSize() {
+        ConnectionPool pool = pool(2, 3, 100, 60_000, 60_000);
+        pool.maintain();
+        assertEquals(2, pool.metrics().idle());
+        assertEquals(2, pool.metrics().created());
+    }
+
+    @Test
+    @DisplayName("Close Closes Idle Connections")
+    public void close() throws Exception {
+        ConnectionPool pool = pool(0, 2, 100, 60_000, 60_000);
+        Connection held = pool.getConnection();
+        pool.getConnection().close();
+        pool.close();
+
+        assertTrue(opened.get(1).closed.get());
+        assertFalse(opened.get(0).closed.get());
+        held.close();
+        assertTrue(opened.get(0).closed.get());
+        assertThrows(DataAccessException.class, pool::getConnection);
+    }
+}
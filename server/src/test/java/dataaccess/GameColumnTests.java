@@ -0,0 +1,81 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.GameCodec;
+import com.google.gson.Gson;
+import model.GameData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameColumnTests {
+
+    @Test
+    @DisplayName("Write Binary")
+    public void writeBinary() throws DataAccessException {
+        ChessGame game = new ChessGame();
+        byte[] bytes = GameColumn.write(game, GameColumn.Format.BINARY);
+        assertEquals(GameCodec.LENGTH, bytes.length);
+        assertEquals(game.getBoard(), GameColumn.read(bytes).getBoard());
+    }
+
+    @Test
+    @DisplayName("Write FEN")
+    public void writeFen() throws DataAccessException {
+        ChessGame game = new ChessGame();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        byte[] bytes = GameColumn.write(game, GameColumn.Format.FEN);
+        assertEquals(game.toFen(), new String(bytes, StandardCharsets.US_ASCII));
+
+        ChessGame read = GameColumn.read(bytes);
+        assertEquals(game.getBoard(), read.getBoard());
+        assertEquals(ChessGame.TeamColor.BLACK, read.getTeamTurn());
+        assertFalse(read.isOver());
+
+        game.setOver(true);
+        assertTrue(GameColumn.read(GameColumn.write(game, GameColumn.Format.FEN)).isOver());
+    }
+
+    @Test
+    @DisplayName("Read Legacy Grid JSON")
+    public void readLegacyGrid() throws DataAccessException {
+        StringBuilder grid = new StringBuilder("[");
+        for (int row = 1; row <= 8; row++) {
+            grid.append(row == 1 ? "[" : ",[");
+            for (int col = 1; col <= 8; col++) {
+                grid.append(col == 1 ? "" : ",");
+                grid.append(row == 1 && col == 5 ? "{\"pieceColor\":\"WHITE\",\"type\":\"KING\"}" : "null");
+            }
+            grid.append("]");
+        }
+        grid.append("]");
+        String json = "{\"turn\":\"BLACK\",\"board\":{\"grid\":" + grid + "},"
+                + "\"whiteKingLoc\":{\"row\":1,\"col\":5},\"isOver\":true}";
+
+        ChessGame game = GameColumn.read(json.getBytes(StandardCharsets.UTF_8));
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertTrue(game.isOver());
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                game.getBoard().getPiece(new ChessPosition(1, 5)));
+        assertNull(game.getBoard().getPiece(new ChessPosition(2, 5)));
+    }
+
+    @Test
+    @DisplayName("Read Legacy GameData JSON")
+    public void readLegacyGameData() throws DataAccessException {
+        GameData data = new GameData(1, "white", null, "game", new ChessGame());
+        byte[] json = new Gson().toJson(data).getBytes(StandardCharsets.UTF_8);
+        assertEquals(data.game().getBoard(), GameColumn.read(json).getBoard());
+    }
+
+    @Test
+    @DisplayName("Reject Garbage")
+    public void garbage() {
+        assertThrows(DataAccessException.class, () -> GameColumn.read(new byte[]{7, 7, 7}));
+    }
+}
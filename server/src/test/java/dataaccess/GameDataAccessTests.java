@@ -2,9 +2,11 @@ package dataaccess;
 
 import chess.ChessBoard;
 import chess.ChessGame;
+import chess.ChessMove;
 import chess.ChessPiece;
 import chess.ChessPosition;
 import model.GameData;
+import model.GameSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -94,6 +96,43 @@ public class GameDataAccessTests {
         }
     }
 
+    @Test
+    @DisplayName("List Game Summaries")
+    public void listGameSummaries() throws DataAccessException {
+        int first = gameDAO.addGame(TESTGAME1);
+        int second = gameDAO.addGame(TESTGAME2);
+        GameSummary[] summaries = assertDoesNotThrow(() -> gameDAO.listGameSummaries());
+        assertArrayEquals(new GameSummary[]{
+                new GameSummary(first, null, null, "Game #1"),
+                new GameSummary(second, "user123", "iAmAUser", "Game #2")
+        }, summaries);
+    }
+
+    @Test
+    @DisplayName("List a Page of Games")
+    public void listGamePage() throws DataAccessException {
+        int first = gameDAO.addGame(TESTGAME1);
+        int full = gameDAO.addGame(TESTGAME2);
+        int third = gameDAO.addGame(TESTGAME3);
+        ChessGame ended = new ChessGame();
+        ended.setOver(true);
+        int finished = gameDAO.addGame(new GameData(0, "user123", null, "Game #4", ended));
+
+        GameSummary[] page = gameDAO.listGameSummaries(new GameQuery(first, 2, false, null, null));
+        assertEquals(2, page.length);
+        assertEquals(full, page[0].gameID());
+        assertEquals("iAmAUser", page[0].blackUsername());
+        assertEquals(third, page[1].gameID());
+
+        assertEquals(3, gameDAO.listGameSummaries(new GameQuery(0, 10, true, null, null)).length);
+        page = gameDAO.listGameSummaries(new GameQuery(0, 10, false, "user123", false));
+        assertEquals(1, page.length);
+        assertEquals(full, page[0].gameID());
+        page = gameDAO.listGameSummaries(new GameQuery(0, 10, true, null, true));
+        assertEquals(1, page.length);
+        assertEquals(finished, page[0].gameID());
+    }
+
     @Test
     @DisplayName("List Games When There Are No Games")
     public void listGamesNoGames() {
@@ -138,4 +177,42 @@ public class GameDataAccessTests {
         );
         assertDoesNotThrow(() -> gameDAO.updateGame(fakeGame));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Logged Moves Replayed")
+    public void loggedMoves() throws Exception {
+        int gameID = gameDAO.addGame(TESTGAME2);
+        GameData game = gameDAO.getGame(gameID);
+        ChessMove[] moves = {
+                new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null),
+                new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7), null)
+        };
+        for (ChessMove move : moves) {
+            game.game().makeMove(move);
+            gameDAO.addMove(game, move);
+        }
+
+        GameData loaded = gameDAO.getGame(gameID);
+        assertEquals(game.game().getBoard(), loaded.game().getBoard());
+        assertEquals(ChessGame.TeamColor.BLACK, loaded.game().getTeamTurn());
+        assertEquals(3, loaded.game().getPly());
+        assertEquals("user123", loaded.whiteUsername());
+        assertEquals(game.game().getBoard(), gameDAO.listGames()[0].game().getBoard());
+    }
+
+    @Test
+    @DisplayName("Update Replaces Logged Moves")
+    public void updateAfterMoves() throws Exception {
+        int gameID = gameDAO.addGame(TESTGAME1);
+        GameData game = gameDAO.getGame(gameID);
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.game().makeMove(move);
+        gameDAO.addMove(game, move);
+
+        gameDAO.updateGame(new GameData(gameID, "user123", null, "Game #1", new ChessGame()));
+        GameData loaded = gameDAO.getGame(gameID);
+        assertEquals(new ChessGame().getBoard(), loaded.game().getBoard());
+        assertEquals(0, loaded.game().getPly());
+    }
+}
@@ -0,0 +1,99 @@
+package dataaccess;
+
+import chess.ChessGame;
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryDAOTests {
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 500;
+
+    @Test
+    @DisplayName("Concurrent Game Creation Gives Unique IDs")
+    public void concurrentAddGame() throws Exception {
+        MemoryGameDAO gameDAO = new MemoryGameDAO();
+        List<Integer> gameIDs = runConcurrently(() -> {
+            List<Integer> added = new ArrayList<>();
+            for (int i = 0; i < PER_THREAD; i++) {
+                added.add(gameDAO.addGame(new GameData(0, null, null, "game", new ChessGame())));
+            }
+            return added;
+        });
+
+        Set<Integer> unique = new HashSet<>(gameIDs);
+        assertEquals(THREADS * PER_THREAD, unique.size());
+        assertEquals(THREADS * PER_THREAD, gameDAO.getSize());
+        GameData[] games = gameDAO.listGames();
+        for (int i = 1; i < games.length; i++) {
+            assertTrue(games[i - 1].gameID() < games[i].gameID());
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent Auth Add and Delete")
+    public void concurrentAuth() throws Exception {
+        MemoryAuthDAO authDAO = new MemoryAuthDAO();
+        runConcurrently(() -> {
+            for (int i = 0; i < PER_THREAD; i++) {
+                AuthData auth = new AuthData(Thread.currentThread().getName() + i, "user");
+                authDAO.addAuth(auth);
+                assertEquals(auth, authDAO.getAuth(auth.authToken()));
+                if (i % 2 == 0) {
+                    authDAO.deleteAuth(auth.authToken());
+                }
+            }
+            return List.of();
+        });
+        assertEquals(THREADS * PER_THREAD / 2, authDAO.getSize());
+        assertNull(authDAO.getAuth(null));
+    }
+
+    @Test
+    @DisplayName("Update of Missing Game Ignored")
+    public void updateMissingGame() throws DataAccessException {
+        MemoryGameDAO gameDAO = new MemoryGameDAO();
+        gameDAO.updateGame(new GameData(7, null, null, "ghost", new ChessGame()));
+        assertNull(gameDAO.getGame(7));
+        assertEquals(0, gameDAO.getSize());
+    }
+
+    @Test
+    @DisplayName("Duplicate Username Rejected")
+    public void duplicateUser() throws DataAccessException {
+        MemoryUserDAO userDAO = new MemoryUserDAO();
+        userDAO.createUser(new UserData("user", "password", "a@b.c"));
+        assertThrows(DataAccessException.class, () -> userDAO.createUser(new UserData("user", "other", "d@e.f")));
+        assertEquals("password", userDAO.getUser("user").password());
+    }
+
+    private static <T> List<T> runConcurrently(Callable<List<T>> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<T>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(task));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<List<T>> future : futures) {
+                results.addAll(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
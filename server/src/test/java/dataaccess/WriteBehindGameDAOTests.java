@@ -0,0 +1,301 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import model.GameData;
+import model.GameSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindGameDAOTests {
+
+    /**
+     * Records every write that reaches the underlying store
+     */
+    private static class RecordingGameDAO extends MemoryGameDAO {
+        final List<List<GameData>> batches = new ArrayList<>();
+        final List<ChessMove> moves = new ArrayList<>();
+        final Set<Integer> broken = new HashSet<>();
+        int singleUpdates;
+
+        @Override
+        public void updateGame(GameData updatedGame) {
+            checkWritable(updatedGame);
+            singleUpdates++;
+            super.updateGame(updatedGame);
+        }
+
+        @Override
+        public void updateGames(List<GameData> updatedGames) {
+            for (GameData game : updatedGames) {
+                checkWritable(game);
+            }
+            batches.add(List.copyOf(updatedGames));
+            for (GameData game : updatedGames) {
+                super.updateGame(game);
+            }
+        }
+
+        @Override
+        public void addMoves(GameData updatedGame, List<ChessMove> addedMoves) {
+            checkWritable(updatedGame);
+            moves.addAll(addedMoves);
+            super.updateGame(updatedGame);
+        }
+
+        private void checkWritable(GameData game) {
+            if (broken.contains(game.gameID())) {
+                throw new IllegalStateException("cannot write game " + game.gameID());
+            }
+        }
+    }
+
+    private RecordingGameDAO stored;
+    private WriteBehindGameDAO gameDAO;
+    private int gameID;
+
+    @BeforeEach
+    public void setUp() throws DataAccessException {
+        stored = new RecordingGameDAO();
+        gameDAO = new WriteBehindGameDAO(stored, 3_600_000);
+        gameID = gameDAO.addGame(new GameData(0, null, null, "game", new ChessGame()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        gameDAO.close();
+    }
+
+    @Test
+    @DisplayName("Updates Held Until Flush")
+    public void heldUntilFlush() throws Exception {
+        GameData game = gameDAO.getGame(gameID);
+        game.game().makeMove(move(2, 5, 4, 5));
+        gameDAO.updateGame(game);
+
+        assertEquals(ChessGame.TeamColor.BLACK, gameDAO.getGame(gameID).game().getTeamTurn());
+        assertTrue(stored.batches.isEmpty());
+
+        gameDAO.flush();
+        assertEquals(1, stored.batches.size());
+        assertEquals(ChessGame.TeamColor.BLACK, stored.getGame(gameID).game().getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Updates Coalesced per Game")
+    public void coalesced() throws Exception {
+        GameData game = gameDAO.getGame(gameID);
+        game.game().makeMove(move(2, 5, 4, 5));
+        gameDAO.updateGame(game);
+        game.game().makeMove(move(7, 5, 5, 5));
+        gameDAO.updateGame(game);
+        int otherID = gameDAO.addGame(new GameData(0, null, null, "other", new ChessGame()));
+        gameDAO.updateGame(new GameData(otherID, "white", null, "other", new ChessGame()));
+
+        gameDAO.flush();
+        assertEquals(1, stored.batches.size());
+        assertEquals(2, stored.batches.getFirst().size());
+        assertEquals(ChessGame.TeamColor.WHITE, stored.getGame(gameID).game().getTeamTurn());
+        assertEquals("white", stored.getGame(otherID).whiteUsername());
+    }
+
+    @Test
+    @DisplayName("Written State Is a Snapshot")
+    public void snapshot() throws Exception {
+        GameData game = gameDAO.getGame(gameID);
+        game.game().makeMove(move(2, 5, 4, 5));
+        gameDAO.updateGame(game);
+        game.game().makeMove(move(7, 5, 5, 5));
+
+        gameDAO.flush();
+        assertEquals(ChessGame.TeamColor.BLACK, stored.getGame(gameID).game().getTeamTurn());
+        assertNotSame(game.game(), stored.getGame(gameID).game());
+    }
+
+    @Test
+    @DisplayName("Finished Game Written Immediately")
+    public void finishedGame() throws DataAccessException {
+        GameData game = gameDAO.getGame(gameID);
+        game.game().setOver(true);
+        gameDAO.updateGame(game);
+
+        assertEquals(1, stored.singleUpdates);
+        assertTrue(stored.getGame(gameID).game().isOver());
+        gameDAO.flush();
+        assertTrue(stored.batches.isEmpty());
+    }
+
+    @Test
+    @DisplayName("List Shows Pending State")
+    public void listPending() throws DataAccessException {
+        gameDAO.updateGame(new GameData(gameID, "white", null, "game", new ChessGame()));
+        assertEquals("white", gameDAO.listGames()[0].whiteUsername());
+    }
+
+    @Test
+    @DisplayName("Page Shows Pending State")
+    public void pagePending() throws DataAccessException {
+        int openID = gameDAO.addGame(new GameData(0, null, null, "open", new ChessGame()));
+        int leftID = gameDAO.addGame(new GameData(0, "white", "black", "left", new ChessGame()));
+        gameDAO.updateGame(new GameData(gameID, "white", "black", "game", new ChessGame()));
+        gameDAO.updateGame(new GameData(leftID, "white", null, "left", new ChessGame()));
+
+        GameSummary[] page = gameDAO.listGameSummaries(new GameQuery(0, 1, true, null, null));
+        assertArrayEquals(new GameSummary[] {new GameSummary(openID, null, null, "open")}, page);
+        page = gameDAO.listGameSummaries(new GameQuery(openID, 1, true, null, null));
+        assertArrayEquals(new GameSummary[] {new GameSummary(leftID, "white", null, "left")}, page);
+        assertTrue(stored.batches.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Close Writes Pending Updates")
+    public void closeFlushes() throws DataAccessException {
+        gameDAO.updateGame(new GameData(gameID, "white", null, "game", new ChessGame()));
+        gameDAO.close();
+        assertEquals("white", stored.getGame(gameID).whiteUsername());
+    }
+
+    @Test
+    @DisplayName("Clear Drops Pending Updates")
+    public void clear() throws DataAccessException {
+        gameDAO.updateGame(new GameData(gameID, "white", null, "game", new ChessGame()));
+        gameDAO.clear();
+        gameDAO.flush();
+        assertTrue(stored.batches.isEmpty());
+        assertNull(gameDAO.getGame(gameID));
+    }
+
+    @Test
+    @DisplayName("Moves Written in Order")
+    public void movesInOrder() throws Exception {
+        GameData game = gameDAO.getGame(gameID);
+        ChessMove[] moves = {move(2, 5, 4, 5), move(7, 5, 5, 5), move(1, 7, 3, 6)};
+        for (ChessMove move : moves) {
+            game.game().makeMove(move);
+            gameDAO.addMove(game, move);
+        }
+        assertTrue(stored.moves.isEmpty());
+
+        gameDAO.flush();
+        assertEquals(List.of(moves), stored.moves);
+        assertEquals(3, stored.getGame(gameID).game().getPly());
+        assertNotSame(game.game(), stored.getGame(gameID).game());
+    }
+
+    @Test
+    @DisplayName("Pending Update Follows Later Moves")
+    public void updateThenMove() throws Exception {
+        GameData game = new GameData(gameID, "white", null, "game", new ChessGame());
+        gameDAO.updateGame(game);
+        ChessMove move = move(2, 5, 4, 5);
+        game.game().makeMove(move);
+        gameDAO.addMove(game, move);
+
+        gameDAO.flush();
+        assertEquals(1, stored.batches.getFirst().getFirst().game().getPly());
+        assertEquals("white", stored.getGame(gameID).whiteUsername());
+    }
+
+    @Test
+    @DisplayName("Finished Game Writes Pending Moves")
+    public void finishedWithMoves() throws Exception {
+        GameData game = gameDAO.getGame(gameID);
+        ChessMove first = move(2, 5, 4, 5);
+        game.game().makeMove(first);
+        gameDAO.addMove(game, first);
+        ChessMove second = move(7, 5, 5, 5);
+        game.game().makeMove(second);
+        game.game().setOver(true);
+        gameDAO.addMove(game, second);
+
+        assertEquals(List.of(first, second), stored.moves);
+        assertTrue(stored.getGame(gameID).game().isOver());
+        assertEquals(0, stored.singleUpdates);
+    }
+
+    @Test
+    @DisplayName("Failing Game Does Not Block Others")
+    public void failingGame() throws Exception {
+        int otherID = gameDAO.addGame(new GameData(0, null, null, "other", new ChessGame()));
+        stored.broken.add(gameID);
+        GameData game = gameDAO.getGame(gameID);
+        ChessMove move = move(2, 5, 4, 5);
+        game.game().makeMove(move);
+        gameDAO.addMove(game, move);
+        gameDAO.updateGame(new GameData(gameID, "white", null, "game", game.game()));
+
+        for (int flush = 1; flush <= 20; flush++) {
+            gameDAO.updateGame(new GameData(otherID, "white" + flush, null, "other", new ChessGame()));
+            gameDAO.flush();
+            assertEquals("white" + flush, stored.getGame(otherID).whiteUsername());
+            assertEquals("white", gameDAO.getGame(gameID).whiteUsername());
+        }
+        WriteBehindGameDAO.Metrics metrics = gameDAO.metrics();
+        assertEquals(1, metrics.retryingGames());
+        assertTrue(metrics.failedWrites() < 10, "retries should back off: " + metrics.failedWrites());
+
+        stored.broken.clear();
+        flushUntilWritten();
+        assertEquals("white", stored.getGame(gameID).whiteUsername());
+        assertEquals(List.of(move), stored.moves);
+        assertEquals(0, gameDAO.metrics().retryingGames());
+    }
+
+    @Test
+    @DisplayName("Outage Keeps Pending Updates")
+    public void outage() throws Exception {
+        stored.broken.add(gameID);
+        gameDAO.updateGame(new GameData(gameID, "white", null, "game", new ChessGame()));
+        for (int flush = 0; flush < 100; flush++) {
+            gameDAO.flush();
+        }
+
+        stored.broken.clear();
+        flushUntilWritten();
+        assertEquals("white", stored.getGame(gameID).whiteUsername());
+    }
+
+    private void flushUntilWritten() {
+        for (int flush = 0; flush <= 64 && gameDAO.metrics().retryingGames() > 0; flush++) {
+            gameDAO.flush();
+        }
+    }
+
+    @Test
+    @DisplayName("Idle Games Dropped from Memory")
+    public void idleEvicted() throws DataAccessException {
+        try (WriteBehindGameDAO evicting = new WriteBehindGameDAO(stored, 3_600_000, 0)) {
+            assertNull(evicting.getGame(gameID).whiteUsername());
+            stored.updateGame(new GameData(gameID, "white", null, "game", new ChessGame()));
+            assertNull(evicting.getGame(gameID).whiteUsername());
+
+            evicting.flush();
+            assertEquals("white", evicting.getGame(gameID).whiteUsername());
+        }
+    }
+
+    @Test
+    @DisplayName("Games with Pending Writes Kept")
+    public void pendingKept() throws DataAccessException {
+        try (WriteBehindGameDAO evicting = new WriteBehindGameDAO(stored, 3_600_000, 0)) {
+            stored.broken.add(gameID);
+            evicting.updateGame(new GameData(gameID, "white", null, "game", new ChessGame()));
+            evicting.flush();
+            assertEquals("white", evicting.getGame(gameID).whiteUsername());
+        }
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+    }
+}
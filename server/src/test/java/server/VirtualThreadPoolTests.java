@@ -0,0 +1,73 @@
+package server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadPoolTests {
+    private final VirtualThreadPool pool = new VirtualThreadPool(2);
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        pool.stop();
+    }
+
+    @Test
+    @DisplayName("Tasks Run on Virtual Threads")
+    public void virtual() throws Exception {
+        pool.start();
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger virtual = new AtomicInteger();
+        pool.execute(() -> {
+            virtual.set(Thread.currentThread().isVirtual() ? 1 : 0);
+            done.countDown();
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, virtual.get());
+    }
+
+    @Test
+    @DisplayName("Concurrency Limited")
+    public void limit() throws Exception {
+        pool.start();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(5);
+        AtomicInteger maxRunning = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            pool.execute(() -> {
+                maxRunning.accumulateAndGet(pool.getThreads(), Math::max);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                finished.countDown();
+            });
+        }
+        Thread.sleep(100);
+        assertEquals(2, pool.getThreads());
+        assertTrue(pool.isLowOnThreads());
+
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        assertFalse(pool.isLowOnThreads());
+    }
+
+    @Test
+    @DisplayName("Stopped Pool Rejects Tasks")
+    public void stopped() throws Exception {
+        pool.start();
+        pool.stop();
+        assertThrows(RejectedExecutionException.class, () -> pool.execute(() -> {
+        }));
+        pool.join();
+    }
+}
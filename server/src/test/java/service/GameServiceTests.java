@@ -3,12 +3,22 @@ package service;
 import dataaccess.*;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
 import model.UserData;
 import org.junit.jupiter.api.*;
 import response.CreateGameResponse;
 import request.JoinGameRequest;
+import request.ListGamesRequest;
+import response.ListGamesResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class GameServiceTests {
@@ -56,16 +66,17 @@ public class GameServiceTests {
         GAME_SERVICE.createGame("Game #1", user1Auth.authToken());
         GAME_SERVICE.createGame("Game #2", user2Auth.authToken());
         GAME_SERVICE.createGame("Game #3", user1Auth.authToken());
-        GameData[] gameList = GAME_SERVICE.listGames(user2Auth.authToken()).games();
-        for (GameData game : gameList) {
-            assertEquals(GAME_DAO.getGame(game.gameID()), game);
+        GameSummary[] gameList = GAME_SERVICE.listGames(user2Auth.authToken()).games();
+        assertEquals(3, gameList.length);
+        for (GameSummary game : gameList) {
+            assertEquals(GameSummary.of(GAME_DAO.getGame(game.gameID())), game);
         }
     }
 
     @Test
     @DisplayName("List Games with No Games")
     public void listGamesNoGames() throws Exception {
-        GameData[] gameList = GAME_SERVICE.listGames(user2Auth.authToken()).games();
+        GameSummary[] gameList = GAME_SERVICE.listGames(user2Auth.authToken()).games();
         assertEquals(0, gameList.length);
     }
 
@@ -80,6 +91,55 @@ public class GameServiceTests {
         assertEquals("Error: unauthorized", e.getMessage());
     }
 
+    @Test
+    @DisplayName("List Games in Pages")
+    public void listGamesInPages() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            GAME_SERVICE.createGame("Game #" + i, user1Auth.authToken());
+        }
+        ListGamesResponse first = GAME_SERVICE.listGames(user1Auth.authToken(),
+                new ListGamesRequest(null, 2, false, null, null));
+        assertEquals(2, first.games().length);
+        assertEquals("Game #1", first.games()[0].gameName());
+
+        ListGamesResponse second = GAME_SERVICE.listGames(user1Auth.authToken(),
+                new ListGamesRequest(first.next(), 2, false, null, null));
+        assertEquals("Game #3", second.games()[0].gameName());
+        ListGamesResponse last = GAME_SERVICE.listGames(user1Auth.authToken(),
+                new ListGamesRequest(second.next(), 2, false, null, null));
+        assertEquals(1, last.games().length);
+        assertNull(last.next());
+
+        ServiceException e = assertThrows(ServiceException.class, () -> GAME_SERVICE.listGames(
+                user1Auth.authToken(), new ListGamesRequest("not a cursor", 2, false, null, null)));
+        assertEquals(400, e.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Filter Game List")
+    public void filterGames() throws Exception {
+        int open = GAME_SERVICE.createGame("Open", user1Auth.authToken()).gameID();
+        int full = GAME_SERVICE.createGame("Full", user1Auth.authToken()).gameID();
+        int finished = GAME_SERVICE.createGame("Finished", user1Auth.authToken()).gameID();
+        GAME_SERVICE.joinGame(new JoinGameRequest("WHITE", full), user1Auth.authToken());
+        GAME_SERVICE.joinGame(new JoinGameRequest("BLACK", full), user2Auth.authToken());
+        GAME_SERVICE.joinGame(new JoinGameRequest("WHITE", finished), user2Auth.authToken());
+        GAME_DAO.getGame(finished).game().setOver(true);
+
+        assertEquals(List.of(open, finished), ids(new ListGamesRequest(null, null, true, null, null)));
+        assertEquals(List.of(full, finished), ids(new ListGamesRequest(null, null, false, USER_2.username(), null)));
+        assertEquals(List.of(finished), ids(new ListGamesRequest(null, null, false, null, "finished")));
+        assertEquals(List.of(open), ids(new ListGamesRequest(null, null, true, null, "active")));
+    }
+
+    private static List<Integer> ids(ListGamesRequest request) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (GameSummary game : GAME_SERVICE.listGames(user1Auth.authToken(), request).games()) {
+            ids.add(game.gameID());
+        }
+        return ids;
+    }
+
     @Test
     @DisplayName("Join Game")
     public void joinGame() throws Exception {
@@ -125,4 +185,29 @@ public class GameServiceTests {
         );
         assertEquals("Error: unauthorized", e.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Concurrent Joins Take a Color Once")
+    public void concurrentJoin() throws Exception {
+        int gameID = GAME_SERVICE.createGame("Game #1", user1Auth.authToken()).gameID();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> joins = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String authToken = (i % 2 == 0) ? user1Auth.authToken() : user2Auth.authToken();
+            joins.add(executor.submit(() -> {
+                try {
+                    GAME_SERVICE.joinGame(new JoinGameRequest("WHITE", gameID), authToken);
+                    return true;
+                } catch (ServiceException e) {
+                    return false;
+                }
+            }));
+        }
+        int joined = 0;
+        for (Future<Boolean> join : joins) {
+            joined += join.get() ? 1 : 0;
+        }
+        executor.shutdown();
+        assertEquals(1, joined);
+    }
+}
@@ -0,0 +1,174 @@
+package websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import com.google.gson.Gson;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveMadeMessage;
+import websocket.messages.ServerMessage;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionTests {
+
+    /**
+     * A session whose writes finish only when the test says so, like a client
+     * that reads slowly
+     */
+    private static class SlowSession {
+        final List<String> written = new ArrayList<>();
+        final Deque<WriteCallback> inFlight = new ArrayDeque<>();
+        int closeCode;
+        final RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(
+                RemoteEndpoint.class.getClassLoader(), new Class<?>[]{RemoteEndpoint.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("sendString") && args.length == 2) {
+                        written.add((String) args[0]);
+                        inFlight.add((WriteCallback) args[1]);
+                    }
+                    return null;
+                });
+        final Session session = (Session) Proxy.newProxyInstance(
+                Session.class.getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getRemote" -> remote;
+                    case "isOpen" -> closeCode == 0;
+                    case "close" -> {
+                        closeCode = (args != null && args.length == 2) ? (int) args[0] : 1000;
+                        yield null;
+                    }
+                    default -> null;
+                });
+
+        void finishWrite() {
+            inFlight.poll().writeSuccess();
+        }
+    }
+
+    private static Connection connection(SlowSession slow, int maxQueued, Connection.SlowConsumerPolicy policy) {
+        return new Connection("token", slow.session, LoadGameMessage.Format.JSON, maxQueued, policy);
+    }
+
+    @Test
+    @DisplayName("One Write at a Time, in Order")
+    public void ordered() {
+        SlowSession slow = new SlowSession();
+        Connection connection = connection(slow, 8, Connection.SlowConsumerPolicy.DISCONNECT);
+        connection.send("a");
+        connection.send("b");
+        connection.send("c");
+        assertEquals(List.of("a"), slow.written);
+        assertEquals(2, connection.queued());
+
+        slow.finishWrite();
+        slow.finishWrite();
+        assertEquals(List.of("a", "b", "c"), slow.written);
+        slow.finishWrite();
+        connection.send("d");
+        assertEquals(List.of("a", "b", "c", "d"), slow.written);
+    }
+
+    @Test
+    @DisplayName("Slow Client Disconnected")
+    public void disconnect() {
+        SlowSession slow = new SlowSession();
+        Connection connection = connection(slow, 2, Connection.SlowConsumerPolicy.DISCONNECT);
+        for (int i = 0; i < 4; i++) {
+            connection.send("message " + i);
+        }
+        assertEquals(1013, slow.closeCode);
+        assertEquals(0, connection.queued());
+
+        slow.finishWrite();
+        connection.send("later");
+        assertEquals(1, slow.written.size());
+    }
+
+    @Test
+    @DisplayName("Slow Client Loses Oldest Messages")
+    public void dropOldest() {
+        SlowSession slow = new SlowSession();
+        Connection connection = connection(slow, 2, Connection.SlowConsumerPolicy.DROP_OLDEST);
+        for (int i = 0; i < 5; i++) {
+            connection.send("message " + i);
+        }
+        assertEquals(0, slow.closeCode);
+        assertEquals(2, connection.queued());
+
+        slow.finishWrite();
+        slow.finishWrite();
+        assertEquals(List.of("message 0", "message 3", "message 4"), slow.written);
+    }
+
+    @Test
+    @DisplayName("Failed Write Stops Sending")
+    public void failedWrite() {
+        SlowSession slow = new SlowSession();
+        Connection connection = connection(slow, 8, Connection.SlowConsumerPolicy.DISCONNECT);
+        connection.send("a");
+        connection.send("b");
+        slow.inFlight.poll().writeFailed(new RuntimeException("connection reset"));
+        connection.send("c");
+        assertEquals(List.of("a"), slow.written);
+    }
+
+    @Test
+    @DisplayName("Broadcast Serialized Once per Format")
+    public void serializedOnce() {
+        ConnectionManager connections = new ConnectionManager();
+        SlowSession[] sessions = {new SlowSession(), new SlowSession(), new SlowSession(), new SlowSession()};
+        for (int i = 0; i < sessions.length; i++) {
+            LoadGameMessage.Format format = (i == 3) ? LoadGameMessage.Format.FEN : LoadGameMessage.Format.JSON;
+            connections.add(1, "token" + i, sessions[i].session, format);
+        }
+        connections.sendToGame(1, new LoadGameMessage(new ChessGame()));
+
+        String json = sessions[0].written.getFirst();
+        assertSame(json, sessions[1].written.getFirst());
+        assertSame(json, sessions[2].written.getFirst());
+        assertNotEquals(json, sessions[3].written.getFirst());
+        assertTrue(sessions[3].written.getFirst().contains("\"fen\""));
+    }
+
+    @Test
+    @DisplayName("Moves Sent Only to Clients That Asked")
+    public void moveUpdates() throws InvalidMoveException {
+        ConnectionManager connections = new ConnectionManager();
+        SlowSession wholeGame = new SlowSession();
+        SlowSession moveOnly = new SlowSession();
+        connections.add(1, "whole", wholeGame.session, LoadGameMessage.Format.JSON);
+        connections.add(1, "moves", moveOnly.session, LoadGameMessage.Format.FEN, true);
+
+        ChessGame game = new ChessGame();
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.makeMove(move);
+        connections.sendMove(1, new LoadGameMessage(game),
+                new MoveMadeMessage(move, game, MoveMadeMessage.Status.PLAYING));
+
+        Gson gson = new Gson();
+        assertEquals(ServerMessage.ServerMessageType.LOAD_GAME,
+                gson.fromJson(wholeGame.written.getFirst(), ServerMessage.class).getServerMessageType());
+        MoveMadeMessage sent = gson.fromJson(moveOnly.written.getFirst(), MoveMadeMessage.class);
+        assertEquals(ServerMessage.ServerMessageType.MOVE_MADE, sent.getServerMessageType());
+        assertTrue(moveOnly.written.getFirst().length() < wholeGame.written.getFirst().length());
+
+        ChessGame copy = new ChessGame();
+        assertTrue(sent.applyTo(copy));
+        assertEquals(game.positionKey(), copy.positionKey());
+        assertEquals(1, copy.getPly());
+        assertFalse(sent.applyTo(copy));
+    }
+}
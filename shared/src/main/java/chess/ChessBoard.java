@@ -1,19 +1,54 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Internally the board is a set of bitboards: one {@code long} per piece type
+ * and color, where bit {@code (row - 1) * 8 + (column - 1)} is set when that
+ * piece occupies the square, plus occupancy masks per color and for the whole
+ * board.
+ * <p>
+ * The board also keeps a Zobrist key of its pieces (see {@link Zobrist}). It is
+ * computed from the bitboards the first time it is asked for and updated with
+ * every placement after that. The key is not serialized: a board read back from
+ * JSON computes it afresh.
+ * <p>
+ * In JSON the board is still the 8x8 grid of pieces it used to be stored as,
+ * so existing games and clients read it unchanged.
  */
+@JsonAdapter(ChessTypeAdapters.BoardAdapter.class)
 public class ChessBoard {
-    private final ChessPiece[][] grid;
+    private final long[] pieces;
+    private final long[] colors;
+    private long occupied;
+    private transient long key;
+    private transient boolean keyValid;
 
     public ChessBoard() {
-        grid = new ChessPiece[8][8];
+        pieces = new long[ChessPiece.INDEX_COUNT];
+        colors = new long[2];
+    }
+
+    private ChessBoard(ChessBoard other) {
+        pieces = other.pieces.clone();
+        colors = other.colors.clone();
+        occupied = other.occupied;
+        key = other.key;
+        keyValid = other.keyValid;
+    }
+
+    /**
+     * @return an independent board with the same pieces
+     */
+    public ChessBoard copy() {
+        return new ChessBoard(this);
     }
 
     /**
@@ -23,7 +58,7 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        grid[position.getRow() - 1][position.getColumn() - 1] = piece;
+        setSquare(square(position), piece);
     }
 
     /**
@@ -34,24 +69,24 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return grid[position.getRow() - 1][position.getColumn() - 1];
+        return getPiece(square(position));
     }
 
     public void movePiece(ChessPiece piece, ChessMove move) {
         ChessPosition start = move.getStartPosition();
         ChessPosition end = move.getEndPosition();
         if (move.getPromotionPiece() != null) {
-            piece = new ChessPiece(piece.getTeamColor(), move.getPromotionPiece());
+            piece = ChessPiece.of(piece.getTeamColor(), move.getPromotionPiece());
         }
-        grid[start.getRow() - 1][start.getColumn() - 1] = null;
-        grid[end.getRow() - 1][end.getColumn() - 1] = piece;
+        setSquare(square(start), null);
+        setSquare(square(end), piece);
     }
 
     public void unMovePiece(ChessPiece piece, ChessMove move, ChessPiece target) {
         ChessPosition start = move.getStartPosition();
         ChessPosition end = move.getEndPosition();
-        grid[start.getRow() - 1][start.getColumn() - 1] = piece;
-        grid[end.getRow() - 1][end.getColumn() - 1] = target;
+        setSquare(square(start), piece);
+        setSquare(square(end), target);
     }
 
     /**
@@ -71,21 +106,149 @@ public class ChessBoard {
         };
 
         for (int i = 1; i <= 8; i++) {
-            addPiece(new ChessPosition(2, i), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(7, i), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(1, i), new ChessPiece(ChessGame.TeamColor.WHITE, pieceOrder[i - 1]));
-            addPiece(new ChessPosition(8, i), new ChessPiece(ChessGame.TeamColor.BLACK, pieceOrder[i - 1]));
+            addPiece(new ChessPosition(2, i), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(new ChessPosition(7, i), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(new ChessPosition(1, i), ChessPiece.of(ChessGame.TeamColor.WHITE, pieceOrder[i - 1]));
+            addPiece(new ChessPosition(8, i), ChessPiece.of(ChessGame.TeamColor.BLACK, pieceOrder[i - 1]));
+        }
+    }
+
+    /**
+     * @return the square index (0 = a1, 63 = h8) of the given position
+     * @throws IllegalArgumentException if the position is off the board
+     */
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    public static int square(int row, int col) {
+        if (!isOnBoard(row, col)) {
+            throw new IllegalArgumentException(String.format("Position is off the board: row %d, column %d", row, col));
         }
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return whether the row and column are both from 1 to 8
+     */
+    static boolean isOnBoard(int row, int col) {
+        return 1 <= row && row <= 8 && 1 <= col && col <= 8;
+    }
+
+    static boolean isOnBoard(ChessPosition position) {
+        return isOnBoard(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * Gets the piece on a square index, or null if the square is empty
+     */
+    ChessPiece getPiece(int square) {
+        long bit = 1L << square;
+        if ((occupied & bit) == 0) {
+            return null;
+        }
+        int first = ((colors[ChessGame.TeamColor.WHITE.ordinal()] & bit) != 0) ? 0 : ChessPiece.TYPE_COUNT;
+        for (int i = first; i < first + ChessPiece.TYPE_COUNT; i++) {
+            if ((pieces[i] & bit) != 0) {
+                return ChessPiece.of(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Places a piece on a square index, replacing whatever was there. A null
+     * piece empties the square.
+     */
+    void setSquare(int square, ChessPiece piece) {
+        long bit = 1L << square;
+        ChessPiece previous = getPiece(square);
+        if (previous != null) {
+            int index = previous.index();
+            pieces[index] &= ~bit;
+            colors[previous.getTeamColor().ordinal()] &= ~bit;
+            occupied &= ~bit;
+            if (keyValid) {
+                key ^= Zobrist.PIECE_SQUARE[index][square];
+            }
+        }
+        if (piece != null) {
+            int index = piece.index();
+            pieces[index] |= bit;
+            colors[piece.getTeamColor().ordinal()] |= bit;
+            occupied |= bit;
+            if (keyValid) {
+                key ^= Zobrist.PIECE_SQUARE[index][square];
+            }
+        }
+    }
+
+    /**
+     * @return the Zobrist key of the pieces on the board, without the side to
+     * move (see {@link ChessGame#positionKey()})
+     */
+    long key() {
+        if (!keyValid) {
+            key = computeKey();
+            keyValid = true;
+        }
+        return key;
+    }
+
+    private long computeKey() {
+        long result = 0;
+        for (int index = 0; index < pieces.length; index++) {
+            for (long bits = pieces[index]; bits != 0; bits &= bits - 1) {
+                result ^= Zobrist.PIECE_SQUARE[index][Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the bitboard for one piece index (see {@link ChessPiece#index()})
+     */
+    long pieces(int index) {
+        return pieces[index];
+    }
+
+    long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[ChessPiece.index(color, type)];
+    }
+
+    long[] copyPieces() {
+        return pieces.clone();
+    }
+
+    /**
+     * @return true if the board holds exactly the pieces in the given bitboards
+     */
+    boolean hasPieces(long[] other) {
+        return Arrays.equals(pieces, other);
+    }
+
+    /**
+     * @return the occupancy mask of every piece belonging to one team
+     */
+    long occupancy(ChessGame.TeamColor color) {
+        return colors[color.ordinal()];
+    }
+
+    /**
+     * @return the occupancy mask of every piece on the board
+     */
+    long occupancy() {
+        return occupied;
     }
 
     @Override
     public String toString() {
         StringBuilder result = new StringBuilder();
-        for (int i = 7; i >= 0; i--) {
+        for (int row = 8; row >= 1; row--) {
             result.append("|");
-            for (int j = 0; j < 8; j++) {
-                String piece = (grid[i][j] == null) ? " " : grid[i][j].toString();
-                result.append(piece).append("|");
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = getPiece(square(row, col));
+                result.append((piece == null) ? " " : piece.toString()).append("|");
             }
             result.append("\n");
         }
@@ -101,11 +264,11 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(grid, that.grid);
+        return key() == that.key() && Arrays.equals(pieces, that.pieces);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(grid);
+        return Long.hashCode(key());
     }
 }
@@ -10,18 +10,126 @@ import java.util.HashSet;
  * signature of the existing methods.
  */
 public class ChessGame {
+    private static final PositionCache POSITION_CACHE =
+            new PositionCache(Integer.getInteger("chess.positionCache.size", PositionCache.DEFAULT_CAPACITY));
+
+    /**
+     * FEN letters indexed by piece index (see {@link ChessPiece#index()})
+     */
+    private static final String FEN_PIECES = "KQBNRPkqbnrp";
+
     private TeamColor turn;
     private ChessBoard board;
-    private ChessPosition whiteKingLoc;
-    private ChessPosition blackKingLoc;
     private boolean isOver = false;
+    private int ply;
 
     public ChessGame() {
         turn = TeamColor.WHITE;
         board = new ChessBoard();
         board.resetBoard();
-        whiteKingLoc = new ChessPosition(1, 5);
-        blackKingLoc = new ChessPosition(8, 5);
+    }
+
+    ChessGame(ChessBoard board, TeamColor turn) {
+        this.board = board;
+        this.turn = turn;
+    }
+
+    /**
+     * @return an independent game in the same state, which can be read while
+     * this one keeps changing
+     */
+    public ChessGame copy() {
+        ChessGame copy = new ChessGame(board.copy(), turn);
+        copy.isOver = isOver;
+        copy.ply = ply;
+        return copy;
+    }
+
+    /**
+     * Builds a game from a position in Forsyth-Edwards Notation, for example
+     * {@code "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1"}.
+     * Only the piece placement and side to move are read. The castling, en
+     * passant and clock fields may be left off and are ignored when present,
+     * since this engine does not play castling or en passant.
+     *
+     * @param fen the position to load
+     * @return a game in that position
+     * @throws IllegalArgumentException if the placement or side to move is malformed
+     */
+    public static ChessGame fromFen(String fen) {
+        ChessBoard board = new ChessBoard();
+        int length = fen.length();
+        int row = 8;
+        int col = 1;
+        int i = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw new IllegalArgumentException("Malformed FEN, rank " + row + " is not 8 squares: " + fen);
+                }
+                row--;
+                col = 1;
+            } else if ('1' <= c && c <= '8') {
+                col += c - '0';
+            } else {
+                int index = FEN_PIECES.indexOf(c);
+                if (index < 0) {
+                    throw new IllegalArgumentException("Malformed FEN, unknown piece '" + c + "': " + fen);
+                }
+                if (col > 8) {
+                    throw new IllegalArgumentException("Malformed FEN, rank " + row + " is not 8 squares: " + fen);
+                }
+                board.setSquare(ChessBoard.square(row, col++), ChessPiece.of(index));
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw new IllegalArgumentException("Malformed FEN, expected 8 ranks of 8 squares: " + fen);
+        }
+        TeamColor turn = TeamColor.WHITE;
+        if (i + 1 < length) {
+            char side = fen.charAt(i + 1);
+            boolean endOfField = i + 2 == length || fen.charAt(i + 2) == ' ';
+            if (side == 'b' && endOfField) {
+                turn = TeamColor.BLACK;
+            } else if (side != 'w' || !endOfField) {
+                throw new IllegalArgumentException("Malformed FEN, side to move must be 'w' or 'b': " + fen);
+            }
+        }
+        return new ChessGame(board, turn);
+    }
+
+    /**
+     * Writes the position in Forsyth-Edwards Notation. There are never castling
+     * rights or an en passant square, and the clocks are not tracked, so the
+     * last four fields are always {@code - - 0 1}.
+     *
+     * @return the position as a FEN string
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(ChessBoard.square(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(FEN_PIECES.charAt(piece.index()));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+        return fen.append((turn == TeamColor.WHITE) ? " w" : " b").append(" - - 0 1").toString();
     }
 
     /**
@@ -48,12 +156,36 @@ public class ChessGame {
         isOver = over;
     }
 
+    /**
+     * @return the number of moves made in this game, counting each side's
+     * move separately
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Sets the move count, for a game restored from a stored position
+     *
+     * @param ply the number of moves made to reach the current position
+     */
+    public void setPly(int ply) {
+        this.ply = ply;
+    }
+
     /**
      * Enum identifying the 2 possible teams in a chess game
      */
     public enum TeamColor {
         WHITE,
-        BLACK
+        BLACK;
+
+        /**
+         * @return the other team
+         */
+        public TeamColor opponent() {
+            return (this == WHITE) ? BLACK : WHITE;
+        }
     }
 
     /**
@@ -62,28 +194,19 @@ public class ChessGame {
      * @param startPosition the piece to get valid moves for
      * @return Set of valid moves for requested piece, or null if no piece at
      * startPosition
+     * @throws IllegalArgumentException if startPosition is off the board
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        ChessPiece piece = board.getPiece(startPosition);
+        int square = ChessBoard.square(startPosition);
+        ChessPiece piece = board.getPiece(square);
         if (piece == null) {
             return null;
         }
-        TeamColor teamColor = piece.getTeamColor();
-        Collection<ChessMove> moves = piece.pieceMoves(board, startPosition);
         HashSet<ChessMove> legalMoves = new HashSet<>();
-        for (ChessMove move : moves) {
-            ChessPiece pieceAtTarget = board.getPiece(move.getEndPosition());
-            board.movePiece(piece, move);
-            if (piece.getPieceType() == ChessPiece.PieceType.KING) {
-                updateKingLocation(piece.getTeamColor(), move.getEndPosition());
-            }
-            if (!isInCheck(teamColor)) {
-                legalMoves.add(move);
-            }
-            if (piece.getPieceType() == ChessPiece.PieceType.KING) {
-                updateKingLocation(piece.getTeamColor(), move.getStartPosition());
+        for (int move : analyze(piece.getTeamColor()).moves()) {
+            if (MoveGenerator.from(move) == square) {
+                legalMoves.add(MoveGenerator.toChessMove(move));
             }
-            board.unMovePiece(piece, move, pieceAtTarget);
         }
         return legalMoves;
     }
@@ -95,6 +218,9 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
+        if (!ChessBoard.isOnBoard(move.getStartPosition()) || !ChessBoard.isOnBoard(move.getEndPosition())) {
+            throw new InvalidMoveException("Given move is invalid!");
+        }
         Collection<ChessMove> legalMoves = validMoves(move.getStartPosition());
         ChessPiece piece = board.getPiece(move.getStartPosition());
         if (legalMoves == null) {
@@ -105,31 +231,34 @@ public class ChessGame {
             throw new InvalidMoveException("Given move is invalid!");
         }
         board.movePiece(piece, move);
-        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
-            updateKingLocation(turn, move.getEndPosition());
-        }
-        setTeamTurn((turn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE);
+        setTeamTurn(turn.opponent());
+        ply++;
+    }
+
+    /**
+     * Gets a 64-bit Zobrist key for the current position: the pieces on the
+     * board and the side to move. Equal positions always share a key, and
+     * distinct positions collide only with negligible probability, so the key
+     * suits cache lookups and repetition checks.
+     *
+     * @return the key of the current position
+     */
+    public long positionKey() {
+        return board.key() ^ Zobrist.turn(turn);
     }
 
     public ChessPosition locateKing(TeamColor teamColor) {
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition pos = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(pos);
-                if (piece != null && piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    return pos;
-                }
-            }
-        }
-        return null;
+        int square = kingSquare(teamColor);
+        return (square < 0) ? null : ChessPosition.of(square);
     }
 
-    public void updateKingLocation(TeamColor teamColor, ChessPosition pos) {
-        if (teamColor == TeamColor.WHITE) {
-            whiteKingLoc = pos;
-        } else {
-            blackKingLoc = pos;
-        }
+    /**
+     * @return the square of the team's king, or -1 if it has no king. With
+     * more than one king the lowest square wins.
+     */
+    private int kingSquare(TeamColor teamColor) {
+        long kings = board.pieces(teamColor, ChessPiece.PieceType.KING);
+        return (kings == 0) ? -1 : Long.numberOfTrailingZeros(kings);
     }
 
     /**
@@ -139,44 +268,11 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingLocation = (teamColor == TeamColor.WHITE) ? whiteKingLoc : blackKingLoc;
-        if (kingLocation == null) {
-            return false;
-        }
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition position = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(position);
-                if (piece == null || piece.getTeamColor() == teamColor) {
-                    continue;
-                }
-                Collection<ChessMove> moves = piece.pieceMoves(board, position);
-                for (ChessMove move : moves) {
-                    if (move.getEndPosition().equals(kingLocation)) {
-                        return true;
-                    }
-                }
-
-            }
-        }
-        return false;
+        return analyze(teamColor).inCheck();
     }
 
     public boolean noValidMoves(TeamColor teamColor) {
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition position = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(position);
-                if (piece == null || piece.getTeamColor() != teamColor) {
-                    continue;
-                }
-                Collection<ChessMove> validMoves = validMoves(position);
-                if (!validMoves.isEmpty()) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return !analyze(teamColor).hasMoves();
     }
 
     /**
@@ -186,7 +282,8 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        return isInCheck(teamColor) && noValidMoves(teamColor);
+        PositionCache.Analysis analysis = analyze(teamColor);
+        return analysis.inCheck() && !analysis.hasMoves();
     }
 
     /**
@@ -197,7 +294,20 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        return !isInCheck(teamColor) && noValidMoves(teamColor);
+        PositionCache.Analysis analysis = analyze(teamColor);
+        return !analysis.inCheck() && !analysis.hasMoves();
+    }
+
+    private PositionCache.Analysis analyze(TeamColor teamColor) {
+        return POSITION_CACHE.analyze(board, teamColor);
+    }
+
+    /**
+     * @return the cache of legal moves and check status shared by every game
+     * in this process
+     */
+    public static PositionCache positionCache() {
+        return POSITION_CACHE;
     }
 
     /**
@@ -207,8 +317,6 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
-        whiteKingLoc = locateKing(TeamColor.WHITE);
-        blackKingLoc = locateKing(TeamColor.BLACK);
     }
 
     /**
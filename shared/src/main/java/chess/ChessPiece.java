@@ -11,6 +11,17 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPiece {
+    static final int TYPE_COUNT = 6;
+    static final int INDEX_COUNT = 2 * TYPE_COUNT;
+    private static final ChessPiece[] CANONICAL = new ChessPiece[INDEX_COUNT];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                CANONICAL[index(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
 
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
@@ -32,6 +43,30 @@ public class ChessPiece {
         PAWN
     }
 
+    /**
+     * Gets the shared instance for a color and type. Pieces are immutable, so
+     * the board hands these out instead of allocating a piece per lookup.
+     */
+    static ChessPiece of(ChessGame.TeamColor color, PieceType type) {
+        return CANONICAL[index(color, type)];
+    }
+
+    static ChessPiece of(int index) {
+        return CANONICAL[index];
+    }
+
+    /**
+     * @return the bitboard index of a color and type, from 0 (white king)
+     * to 11 (black pawn)
+     */
+    static int index(ChessGame.TeamColor color, PieceType type) {
+        return color.ordinal() * TYPE_COUNT + type.ordinal();
+    }
+
+    int index() {
+        return index(pieceColor, type);
+    }
+
     /**
      * @return Which team this chess piece belongs to
      */
@@ -54,25 +89,17 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        if (type == PieceType.PAWN) {
-            return getPawnMoves(board, myPosition);
-        }
-
-        int[][] directionVectors = switch (type) {
-            case KING -> new int[][]{{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
-            case QUEEN -> new int[][]{{1, 1}, {-1, 1}, {-1, -1}, {1, -1}, {1, 0}, {0, 1}, {-1, 0}, {0, -1}};
-            case BISHOP -> new int[][]{{1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
-            case KNIGHT -> new int[][]{{2, -1}, {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}};
-            case ROOK -> new int[][]{{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
-            default -> null;
-        };
-
-        int maxSteps = switch (type) {
-            case QUEEN, ROOK, BISHOP -> 7;
-            default -> 1;
-        };
+        return generateMoves(this, board, myPosition);
+    }
 
-        return calculateMoves(board, myPosition, directionVectors, maxSteps);
+    private static HashSet<ChessMove> generateMoves(ChessPiece piece, ChessBoard board, ChessPosition position) {
+        int[] buffer = new int[MoveGenerator.MAX_PIECE_MOVES];
+        int count = MoveGenerator.pieceMoves(board, ChessBoard.square(position), piece, buffer, 0);
+        HashSet<ChessMove> moves = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            moves.add(MoveGenerator.toChessMove(buffer[i]));
+        }
+        return moves;
     }
 
     public boolean isEnemyOwned(ChessBoard board, ChessPosition pos) {
@@ -91,9 +118,7 @@ public class ChessPiece {
     }
 
     public boolean outOfBounds(ChessPosition pos) {
-        int r = pos.getRow();
-        int c = pos.getColumn();
-        return 1 > r || r > 8 || 1 > c || c > 8;
+        return !ChessBoard.isOnBoard(pos);
     }
 
     public boolean isValidTarget(ChessBoard board, ChessPosition pos) {
@@ -104,6 +129,14 @@ public class ChessPiece {
         return pieceAtTarget == null || pieceAtTarget.getTeamColor() != pieceColor;
     }
 
+    /**
+     * Steps out from a position along each direction, up to maxSteps squares,
+     * stopping at the edge of the board or at the first piece in the way
+     *
+     * @deprecated {@link #pieceMoves} no longer uses this; it generates moves
+     * from the board's bitboards
+     */
+    @Deprecated
     public HashSet<ChessMove> calculateMoves(ChessBoard board, ChessPosition myPosition, int[][] directionVectors, int maxSteps) {
         HashSet<ChessMove> moves = new HashSet<>();
         for (int[] directionVector : directionVectors) {
@@ -112,12 +145,11 @@ public class ChessPiece {
                         myPosition.getRow() + directionVector[0] * i,
                         myPosition.getColumn() + directionVector[1] * i
                 );
-                if (isValidTarget(board, candidate)) {
-                    moves.add(new ChessMove(myPosition, candidate, null));
-                    if (isEnemyOwned(board, candidate)) {
-                        break;
-                    }
-                } else {
+                if (!isValidTarget(board, candidate)) {
+                    break;
+                }
+                moves.add(new ChessMove(myPosition, candidate, null));
+                if (isEnemyOwned(board, candidate)) {
                     break;
                 }
             }
@@ -125,45 +157,14 @@ public class ChessPiece {
         return moves;
     }
 
+    /**
+     * @return the moves a pawn of this piece's color would have from the
+     * position, whatever this piece's type
+     * @deprecated use {@link #pieceMoves} on a pawn
+     */
+    @Deprecated
     public HashSet<ChessMove> getPawnMoves(ChessBoard board, ChessPosition myPosition) {
-        HashSet<ChessMove> moves = new HashSet<>();
-        int teamDirection = (pieceColor == ChessGame.TeamColor.WHITE) ? 1 : -1;
-        int pawnStartRow = (pieceColor == ChessGame.TeamColor.WHITE) ? 2 : 7;
-
-        ChessPosition leftAttack = new ChessPosition(myPosition.getRow() + teamDirection, myPosition.getColumn() - 1);
-        ChessPosition rightAttack = new ChessPosition(myPosition.getRow() + teamDirection, myPosition.getColumn() + 1);
-        ChessPosition singleAdvance = new ChessPosition(myPosition.getRow() + teamDirection, myPosition.getColumn());
-        ChessPosition doubleAdvance = new ChessPosition(myPosition.getRow() + 2 * teamDirection, myPosition.getColumn());
-
-        HashSet<ChessPosition> validPosition = new HashSet<>();
-
-        if (isEmpty(board, singleAdvance)) {
-            validPosition.add(singleAdvance);
-        }
-
-        if (myPosition.getRow() == pawnStartRow && isEmpty(board, singleAdvance) && isEmpty(board, doubleAdvance)) {
-            validPosition.add(doubleAdvance);
-        }
-
-        if (isEnemyOwned(board, leftAttack)) {
-            validPosition.add(leftAttack);
-        }
-
-        if (isEnemyOwned(board, rightAttack)) {
-            validPosition.add(rightAttack);
-        }
-
-        PieceType[] promotionOptions = {null};
-        if (myPosition.getRow() + teamDirection == pawnStartRow + 6 * teamDirection) {
-            promotionOptions = new PieceType[]{PieceType.QUEEN, PieceType.BISHOP, PieceType.ROOK, PieceType.KNIGHT};
-        }
-
-        for (ChessPosition targetPosition : validPosition) {
-            for (PieceType option : promotionOptions) {
-                moves.add(new ChessMove(myPosition, targetPosition, option));
-            }
-        }
-        return moves;
+        return generateMoves(of(pieceColor, PieceType.PAWN), board, myPosition);
     }
 
     @Override
@@ -9,6 +9,13 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPosition {
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(square / 8 + 1, square % 8 + 1);
+        }
+    }
 
     private final int row;
     private final int col;
@@ -18,6 +25,13 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Gets the shared position for a board square index (0 = a1, 63 = h8)
+     */
+    static ChessPosition of(int square) {
+        return SQUARES[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
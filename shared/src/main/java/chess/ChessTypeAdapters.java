@@ -0,0 +1,280 @@
+package chess;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import serialization.JsonEnums;
+
+import java.io.IOException;
+
+/**
+ * Streaming Gson adapters for the chess classes. They read and write the same
+ * JSON that Gson's reflection would, field for field, so clients and stored
+ * games that use plain Gson are unaffected, but they skip reflection and hand
+ * out the shared {@link ChessPosition} and {@link ChessPiece} instances. The
+ * board is the exception: it keeps the JSON shape it had before it held
+ * bitboards, and it uses its adapter under any Gson.
+ */
+public final class ChessTypeAdapters {
+
+    private ChessTypeAdapters() {
+    }
+
+    /**
+     * Adds the adapters to a Gson builder
+     */
+    public static GsonBuilder register(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapter(ChessPosition.class, new PositionAdapter().nullSafe())
+                .registerTypeAdapter(ChessPiece.class, new PieceAdapter().nullSafe())
+                .registerTypeAdapter(ChessMove.class, new MoveAdapter().nullSafe())
+                .registerTypeAdapter(ChessGame.class, new GameAdapter().nullSafe());
+    }
+
+    private static final class PositionAdapter extends TypeAdapter<ChessPosition> {
+        @Override
+        public void write(JsonWriter out, ChessPosition position) throws IOException {
+            out.beginObject();
+            out.name("row").value(position.getRow());
+            out.name("col").value(position.getColumn());
+            out.endObject();
+        }
+
+        @Override
+        public ChessPosition read(JsonReader in) throws IOException {
+            int row = 0;
+            int col = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "row" -> row = in.nextInt();
+                    case "col" -> col = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return ChessBoard.isOnBoard(row, col) ? ChessPosition.of(ChessBoard.square(row, col))
+                    : new ChessPosition(row, col);
+        }
+    }
+
+    private static final class PieceAdapter extends TypeAdapter<ChessPiece> {
+        @Override
+        public void write(JsonWriter out, ChessPiece piece) throws IOException {
+            out.beginObject();
+            out.name("pieceColor").value(name(piece.getTeamColor()));
+            out.name("type").value(name(piece.getPieceType()));
+            out.endObject();
+        }
+
+        @Override
+        public ChessPiece read(JsonReader in) throws IOException {
+            ChessGame.TeamColor color = null;
+            ChessPiece.PieceType type = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "pieceColor" -> color = JsonEnums.read(in, ChessGame.TeamColor.class);
+                    case "type" -> type = JsonEnums.read(in, ChessPiece.PieceType.class);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return (color != null && type != null) ? ChessPiece.of(color, type) : new ChessPiece(color, type);
+        }
+    }
+
+    private static final class MoveAdapter extends TypeAdapter<ChessMove> {
+        private final PositionAdapter positions = new PositionAdapter();
+
+        @Override
+        public void write(JsonWriter out, ChessMove move) throws IOException {
+            out.beginObject();
+            writePosition(out.name("startPosition"), move.getStartPosition());
+            writePosition(out.name("endPosition"), move.getEndPosition());
+            out.name("promotionPiece").value(name(move.getPromotionPiece()));
+            out.endObject();
+        }
+
+        private void writePosition(JsonWriter out, ChessPosition position) throws IOException {
+            if (position == null) {
+                out.nullValue();
+            } else {
+                positions.write(out, position);
+            }
+        }
+
+        @Override
+        public ChessMove read(JsonReader in) throws IOException {
+            ChessPosition start = null;
+            ChessPosition end = null;
+            ChessPiece.PieceType promotion = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "startPosition" -> start = readPosition(in);
+                    case "endPosition" -> end = readPosition(in);
+                    case "promotionPiece" -> promotion = JsonEnums.read(in, ChessPiece.PieceType.class);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new ChessMove(start, end, promotion);
+        }
+
+        private ChessPosition readPosition(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return positions.read(in);
+        }
+    }
+
+    /**
+     * Boards are written as the 8x8 grid of pieces the board was first stored
+     * as, rows first, with null for an empty square, so stored games and
+     * clients that know only that shape can still read them. Boards written
+     * as their bitboards are read too; of those only the piece bitboards are
+     * used, since the color and occupancy boards follow from them.
+     * <p>
+     * {@link ChessBoard} names this adapter, so plain Gson uses it as well.
+     */
+    static final class BoardAdapter extends TypeAdapter<ChessBoard> {
+        private final PieceAdapter pieces = new PieceAdapter();
+
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            out.beginObject();
+            out.name("grid").beginArray();
+            for (int row = 1; row <= 8; row++) {
+                out.beginArray();
+                for (int col = 1; col <= 8; col++) {
+                    ChessPiece piece = board.getPiece(ChessBoard.square(row, col));
+                    if (piece == null) {
+                        out.nullValue();
+                    } else {
+                        pieces.write(out, piece);
+                    }
+                }
+                out.endArray();
+            }
+            out.endArray();
+            out.endObject();
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            ChessBoard board = new ChessBoard();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() != JsonToken.BEGIN_ARRAY) {
+                    in.skipValue();
+                } else if (name.equals("grid")) {
+                    readGrid(in, board);
+                } else if (name.equals("pieces")) {
+                    readBitboards(in, board);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return board;
+        }
+
+        private void readGrid(JsonReader in, ChessBoard board) throws IOException {
+            in.beginArray();
+            for (int row = 1; in.hasNext(); row++) {
+                in.beginArray();
+                for (int col = 1; in.hasNext(); col++) {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        continue;
+                    }
+                    ChessPiece piece = pieces.read(in);
+                    if (row <= 8 && col <= 8) {
+                        board.setSquare(ChessBoard.square(row, col), piece);
+                    }
+                }
+                in.endArray();
+            }
+            in.endArray();
+        }
+
+        private static void readBitboards(JsonReader in, ChessBoard board) throws IOException {
+            in.beginArray();
+            for (int index = 0; in.hasNext(); index++) {
+                long bits = in.nextLong();
+                if (index >= ChessPiece.INDEX_COUNT) {
+                    continue;
+                }
+                for (; bits != 0; bits &= bits - 1) {
+                    board.setSquare(Long.numberOfTrailingZeros(bits), ChessPiece.of(index));
+                }
+            }
+            in.endArray();
+        }
+    }
+
+    /**
+     * A game missing a field gets what {@link ChessGame#ChessGame()} would
+     * give it, as with reflection
+     */
+    private static final class GameAdapter extends TypeAdapter<ChessGame> {
+        private final BoardAdapter boards = new BoardAdapter();
+
+        @Override
+        public void write(JsonWriter out, ChessGame game) throws IOException {
+            out.beginObject();
+            out.name("turn").value(name(game.getTeamTurn()));
+            out.name("board");
+            if (game.getBoard() == null) {
+                out.nullValue();
+            } else {
+                boards.write(out, game.getBoard());
+            }
+            out.name("isOver").value(game.isOver());
+            out.name("ply").value(game.getPly());
+            out.endObject();
+        }
+
+        @Override
+        public ChessGame read(JsonReader in) throws IOException {
+            ChessGame.TeamColor turn = ChessGame.TeamColor.WHITE;
+            ChessBoard board = null;
+            boolean over = false;
+            int ply = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "turn" -> turn = JsonEnums.read(in, ChessGame.TeamColor.class);
+                    case "board" -> board = boards.read(in);
+                    case "isOver" -> over = in.nextBoolean();
+                    case "ply" -> ply = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (board == null) {
+                board = new ChessBoard();
+                board.resetBoard();
+            }
+            ChessGame game = new ChessGame(board, turn);
+            game.setOver(over);
+            game.setPly(ply);
+            return game;
+        }
+    }
+
+    private static String name(Enum<?> value) {
+        return (value == null) ? null : value.name();
+    }
+}
@@ -0,0 +1,91 @@
+package chess;
+
+/**
+ * Encodes a game as a short, fixed-size byte array for storage.
+ * <p>
+ * Layout (version 1, 34 bytes):
+ * <ul>
+ * <li>byte 0: format version</li>
+ * <li>byte 1: flags, bit 0 set when black is to move, bit 1 set when the game is over</li>
+ * <li>bytes 2-33: one nibble per square from a1 to h8, low nibble first. 0 is
+ * an empty square, otherwise the piece index (see {@link ChessPiece#index()}) plus one.</li>
+ * </ul>
+ * King locations are not stored since they are read off the board. Nor is
+ * the move count, which a store keeps alongside the encoded game.
+ * <p>
+ * Single moves encode to 15 bits, see {@link #encodeMove(ChessMove)}.
+ */
+public final class GameCodec {
+    public static final byte VERSION = 1;
+    public static final int LENGTH = 2 + 64 / 2;
+
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int OVER = 1 << 1;
+
+    private GameCodec() {
+    }
+
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[LENGTH];
+        bytes[0] = VERSION;
+        int flags = 0;
+        if (game.getTeamTurn() == ChessGame.TeamColor.BLACK) {
+            flags |= BLACK_TO_MOVE;
+        }
+        if (game.isOver()) {
+            flags |= OVER;
+        }
+        bytes[1] = (byte) flags;
+        ChessBoard board = game.getBoard();
+        for (int index = 0; index < ChessPiece.INDEX_COUNT; index++) {
+            for (long bits = board.pieces(index); bits != 0; bits &= bits - 1) {
+                int square = Long.numberOfTrailingZeros(bits);
+                bytes[2 + square / 2] |= (byte) ((index + 1) << (4 * (square & 1)));
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not an encoded game
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes == null || bytes.length != LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Not an encoded chess game");
+        }
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            int code = (bytes[2 + square / 2] >> (4 * (square & 1))) & 0xF;
+            if (code > ChessPiece.INDEX_COUNT) {
+                throw new IllegalArgumentException("Unknown piece code " + code + " on square " + square);
+            }
+            if (code != 0) {
+                board.setSquare(square, ChessPiece.of(code - 1));
+            }
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(((bytes[1] & BLACK_TO_MOVE) != 0) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        game.setOver((bytes[1] & OVER) != 0);
+        return game;
+    }
+
+    /**
+     * Encodes a move as the start square in bits 0-5, the end square in bits
+     * 6-11 and the promotion piece in bits 12-14, so it fits in a SMALLINT
+     */
+    public static int encodeMove(ChessMove move) {
+        return MoveGenerator.encode(ChessBoard.square(move.getStartPosition()),
+                ChessBoard.square(move.getEndPosition()), move.getPromotionPiece());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not an encoded move
+     */
+    public static ChessMove decodeMove(int move) {
+        if ((move & ~0x7FFF) != 0 || ((move >>> 12) & 0x7) > ChessPiece.PieceType.values().length) {
+            throw new IllegalArgumentException("Not an encoded move: " + move);
+        }
+        return MoveGenerator.toChessMove(move);
+    }
+}
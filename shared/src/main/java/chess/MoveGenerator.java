@@ -0,0 +1,401 @@
+package chess;
+
+/**
+ * Generates pseudo-legal moves straight from a {@link ChessBoard}'s bitboards.
+ * <p>
+ * Moves are written as ints into a buffer owned by the caller, so generating
+ * moves allocates nothing. An encoded move stores the start square in bits
+ * 0-5, the end square in bits 6-11 and the promotion piece (0 for none,
+ * otherwise {@code PieceType.ordinal() + 1}) in bits 12-14. Squares use the
+ * board's indexing, where 0 is a1 and 63 is h8.
+ */
+public final class MoveGenerator {
+    /**
+     * Large enough to hold every pseudo-legal move of a single piece
+     */
+    public static final int MAX_PIECE_MOVES = 32;
+
+    /**
+     * Large enough to hold every pseudo-legal move of one side in any position
+     */
+    public static final int MAX_MOVES = 256;
+
+    private static final int NORTH = 0;
+    private static final int EAST = 1;
+    private static final int NORTH_EAST = 2;
+    private static final int NORTH_WEST = 3;
+    private static final int SOUTH = 4;
+    private static final int WEST = 5;
+    private static final int SOUTH_WEST = 6;
+    private static final int SOUTH_EAST = 7;
+
+    private static final int[][] DIRECTIONS = {
+            {1, 0}, {0, 1}, {1, 1}, {1, -1}, {-1, 0}, {0, -1}, {-1, -1}, {-1, 1}
+    };
+
+    private static final long[][] RAYS = new long[DIRECTIONS.length][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT
+    };
+
+    static {
+        int[][] knightJumps = {{2, -1}, {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}};
+        for (int square = 0; square < 64; square++) {
+            int row = square / 8;
+            int col = square % 8;
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                KING_ATTACKS[square] |= bit(row + DIRECTIONS[d][0], col + DIRECTIONS[d][1]);
+                for (int step = 1; step < 8; step++) {
+                    RAYS[d][square] |= bit(row + DIRECTIONS[d][0] * step, col + DIRECTIONS[d][1] * step);
+                }
+            }
+            for (int[] jump : knightJumps) {
+                KNIGHT_ATTACKS[square] |= bit(row + jump[0], col + jump[1]);
+            }
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = bit(row + 1, col - 1) | bit(row + 1, col + 1);
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = bit(row - 1, col - 1) | bit(row - 1, col + 1);
+        }
+        for (int square = 0; square < 64; square++) {
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                long ray = RAYS[d][square];
+                long line = ray | RAYS[(d + 4) % DIRECTIONS.length][square] | (1L << square);
+                for (long targets = ray; targets != 0; targets &= targets - 1) {
+                    int target = Long.numberOfTrailingZeros(targets);
+                    BETWEEN[square][target] = ray & ~RAYS[d][target] & ~(1L << target);
+                    LINE[square][target] = line;
+                }
+            }
+        }
+    }
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Appends the pseudo-legal moves of a piece standing on a square. Moves that
+     * would leave the mover's king in danger are not filtered out.
+     *
+     * @param board  the board to generate moves on
+     * @param square the square the piece stands on
+     * @param piece  the piece to generate moves for
+     * @param moves  the buffer receiving encoded moves
+     * @param count  the number of moves already in the buffer
+     * @return the number of moves in the buffer after appending
+     */
+    public static int pieceMoves(ChessBoard board, int square, ChessPiece piece, int[] moves, int count) {
+        ChessGame.TeamColor color = piece.getTeamColor();
+        long own = board.occupancy(color);
+        long occupied = board.occupancy();
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            return pawnMoves(square, color, own, occupied, moves, count);
+        }
+        long targets = attacks(piece.getPieceType(), square, occupied) & ~own;
+        while (targets != 0) {
+            moves[count++] = encode(square, Long.numberOfTrailingZeros(targets), null);
+            targets &= targets - 1;
+        }
+        return count;
+    }
+
+    /**
+     * Appends the legal moves of a piece standing on a square, meaning moves
+     * that do not leave its own king in check.
+     *
+     * @return the number of moves in the buffer after appending
+     */
+    public static int legalPieceMoves(ChessBoard board, int square, int[] moves, int count) {
+        ChessPiece piece = board.getPiece(square);
+        ChessGame.TeamColor color = piece.getTeamColor();
+        long kings = board.pieces(color, ChessPiece.PieceType.KING);
+        if (Long.bitCount(kings) > 1) {
+            return legalMovesByTrial(board, square, piece, moves, count);
+        }
+        int king = (kings == 0) ? -1 : Long.numberOfTrailingZeros(kings);
+        long checkers = (king < 0) ? 0 : attackers(board, king, color.opponent(), board.occupancy());
+        return legalMoves(board, square, piece, king, checkers, pinned(board, king, color), moves, count);
+    }
+
+    /**
+     * Appends the legal moves of every piece one team has on the board.
+     *
+     * @return the number of moves in the buffer after appending
+     */
+    public static int legalMoves(ChessBoard board, ChessGame.TeamColor color, int[] moves, int count) {
+        long kings = board.pieces(color, ChessPiece.PieceType.KING);
+        int king = (kings == 0) ? -1 : Long.numberOfTrailingZeros(kings);
+        long checkers = (king < 0) ? 0 : attackers(board, king, color.opponent(), board.occupancy());
+        long pinned = pinned(board, king, color);
+        for (long own = board.occupancy(color); own != 0; own &= own - 1) {
+            int square = Long.numberOfTrailingZeros(own);
+            ChessPiece piece = board.getPiece(square);
+            if (Long.bitCount(kings) > 1) {
+                count = legalMovesByTrial(board, square, piece, moves, count);
+            } else {
+                count = legalMoves(board, square, piece, king, checkers, pinned, moves, count);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return true if the team has at least one legal move
+     */
+    public static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor color) {
+        int[] buffer = new int[MAX_PIECE_MOVES];
+        long kings = board.pieces(color, ChessPiece.PieceType.KING);
+        int king = (kings == 0) ? -1 : Long.numberOfTrailingZeros(kings);
+        long checkers = (king < 0) ? 0 : attackers(board, king, color.opponent(), board.occupancy());
+        long pinned = pinned(board, king, color);
+        for (long own = board.occupancy(color); own != 0; own &= own - 1) {
+            int square = Long.numberOfTrailingZeros(own);
+            ChessPiece piece = board.getPiece(square);
+            int count = (Long.bitCount(kings) > 1)
+                    ? legalMovesByTrial(board, square, piece, buffer, 0)
+                    : legalMoves(board, square, piece, king, checkers, pinned, buffer, 0);
+            if (count > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Filters a piece's pseudo-legal moves down to legal ones using the checking
+     * pieces and pinned pieces of the position, without playing any move out.
+     * A piece may only move along the line it is pinned on; when in check a
+     * piece may only capture the checker or block it, and nothing but the king
+     * may move out of a double check. The king may go to any square the enemy
+     * does not attack once the king itself is lifted off the board.
+     */
+    private static int legalMoves(ChessBoard board, int square, ChessPiece piece, int king, long checkers,
+                                  long pinned, int[] moves, int count) {
+        int start = count;
+        count = pieceMoves(board, square, piece, moves, count);
+        if (king < 0) {
+            return count;
+        }
+
+        int kept = start;
+        if (square == king) {
+            ChessGame.TeamColor enemy = piece.getTeamColor().opponent();
+            long occupied = board.occupancy() & ~(1L << king);
+            for (int i = start; i < count; i++) {
+                if (attackers(board, to(moves[i]), enemy, occupied) == 0) {
+                    moves[kept++] = moves[i];
+                }
+            }
+            return kept;
+        }
+
+        long allowed = -1L;
+        if (checkers != 0) {
+            if (Long.bitCount(checkers) > 1) {
+                return start;
+            }
+            allowed = checkers | BETWEEN[king][Long.numberOfTrailingZeros(checkers)];
+        }
+        if ((pinned & (1L << square)) != 0) {
+            allowed &= LINE[king][square];
+        }
+        for (int i = start; i < count; i++) {
+            if ((allowed & (1L << to(moves[i]))) != 0) {
+                moves[kept++] = moves[i];
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * @return a mask of the team's pieces that are the only thing standing
+     * between their king and an enemy bishop, rook or queen
+     */
+    private static long pinned(ChessBoard board, int king, ChessGame.TeamColor color) {
+        if (king < 0) {
+            return 0;
+        }
+        ChessGame.TeamColor enemy = color.opponent();
+        long queens = board.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        long snipers = (rookAttacks(king, 0) & (board.pieces(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (bishopAttacks(king, 0) & (board.pieces(enemy, ChessPiece.PieceType.BISHOP) | queens));
+        long occupied = board.occupancy();
+        long pinned = 0;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = BETWEEN[king][Long.numberOfTrailingZeros(snipers)] & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & board.occupancy(color);
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Legal move filter for boards where a team has several kings, which the pin
+     * logic cannot describe. Each move is played out and the team's lowest king
+     * checked for attack, then the move is taken back.
+     */
+    private static int legalMovesByTrial(ChessBoard board, int square, ChessPiece piece, int[] moves, int count) {
+        int start = count;
+        count = pieceMoves(board, square, piece, moves, count);
+        ChessGame.TeamColor color = piece.getTeamColor();
+        int kept = start;
+        for (int i = start; i < count; i++) {
+            int move = moves[i];
+            ChessPiece captured = board.getPiece(to(move));
+            ChessPiece.PieceType promotion = promotion(move);
+            board.setSquare(square, null);
+            board.setSquare(to(move), (promotion == null) ? piece : ChessPiece.of(color, promotion));
+            long kings = board.pieces(color, ChessPiece.PieceType.KING);
+            if (kings == 0 || !isAttacked(board, Long.numberOfTrailingZeros(kings), color.opponent())) {
+                moves[kept++] = move;
+            }
+            board.setSquare(to(move), captured);
+            board.setSquare(square, piece);
+        }
+        return kept;
+    }
+
+    private static int pawnMoves(int square, ChessGame.TeamColor color, long own, long occupied, int[] moves, int count) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        int row = square / 8;
+        int startRow = white ? 1 : 6;
+        int promotionRow = white ? 7 : 0;
+        int forward = white ? 8 : -8;
+
+        long targets = PAWN_ATTACKS[color.ordinal()][square] & occupied & ~own;
+        int advance = square + forward;
+        if (advance >= 0 && advance < 64 && (occupied & (1L << advance)) == 0) {
+            targets |= 1L << advance;
+            int doubleAdvance = advance + forward;
+            if (row == startRow && (occupied & (1L << doubleAdvance)) == 0) {
+                targets |= 1L << doubleAdvance;
+            }
+        }
+
+        boolean promotes = row + (white ? 1 : -1) == promotionRow;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (promotes) {
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    moves[count++] = encode(square, to, promotion);
+                }
+            } else {
+                moves[count++] = encode(square, to, null);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return every square a non-pawn piece on {@code square} attacks given the
+     * board's occupancy, including squares held by either team
+     */
+    static long attacks(ChessPiece.PieceType type, int square, long occupied) {
+        return switch (type) {
+            case KING -> KING_ATTACKS[square];
+            case KNIGHT -> KNIGHT_ATTACKS[square];
+            case BISHOP -> bishopAttacks(square, occupied);
+            case ROOK -> rookAttacks(square, occupied);
+            case QUEEN -> bishopAttacks(square, occupied) | rookAttacks(square, occupied);
+            case PAWN -> 0;
+        };
+    }
+
+    static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * Finds the pieces of one team that attack a square by working outward from
+     * the square itself: a knight attacks it exactly when a knight on the square
+     * would attack the knight, and likewise for every other piece type.
+     *
+     * @param board    the board to inspect
+     * @param square   the square under attack
+     * @param attacker the team whose pieces are attacking
+     * @param occupied the occupancy used to stop sliding pieces
+     * @return a mask of every attacking piece
+     */
+    static long attackers(ChessBoard board, int square, ChessGame.TeamColor attacker, long occupied) {
+        long queens = board.pieces(attacker, ChessPiece.PieceType.QUEEN);
+        return (PAWN_ATTACKS[attacker.opponent().ordinal()][square] & board.pieces(attacker, ChessPiece.PieceType.PAWN))
+                | (KNIGHT_ATTACKS[square] & board.pieces(attacker, ChessPiece.PieceType.KNIGHT))
+                | (KING_ATTACKS[square] & board.pieces(attacker, ChessPiece.PieceType.KING))
+                | (bishopAttacks(square, occupied) & (board.pieces(attacker, ChessPiece.PieceType.BISHOP) | queens))
+                | (rookAttacks(square, occupied) & (board.pieces(attacker, ChessPiece.PieceType.ROOK) | queens));
+    }
+
+    /**
+     * @return true if any piece of the attacking team attacks the square
+     */
+    public static boolean isAttacked(ChessBoard board, int square, ChessGame.TeamColor attacker) {
+        return attackers(board, square, attacker, board.occupancy()) != 0;
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        return positiveRay(NORTH_EAST, square, occupied) | positiveRay(NORTH_WEST, square, occupied)
+                | negativeRay(SOUTH_EAST, square, occupied) | negativeRay(SOUTH_WEST, square, occupied);
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        return positiveRay(NORTH, square, occupied) | positiveRay(EAST, square, occupied)
+                | negativeRay(SOUTH, square, occupied) | negativeRay(WEST, square, occupied);
+    }
+
+    private static long positiveRay(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            ray ^= RAYS[direction][Long.numberOfTrailingZeros(blockers)];
+        }
+        return ray;
+    }
+
+    private static long negativeRay(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            ray ^= RAYS[direction][63 - Long.numberOfLeadingZeros(blockers)];
+        }
+        return ray;
+    }
+
+    private static long bit(int row, int col) {
+        if (row < 0 || row > 7 || col < 0 || col > 7) {
+            return 0;
+        }
+        return 1L << (row * 8 + col);
+    }
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotion) {
+        int promotionCode = (promotion == null) ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (promotionCode << 12);
+    }
+
+    public static int from(int move) {
+        return move & 0x3f;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3f;
+    }
+
+    /**
+     * @return the promotion piece of an encoded move, or null if it is not a
+     * promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotionCode = (move >>> 12) & 0x7;
+        return (promotionCode == 0) ? null : PIECE_TYPES[promotionCode - 1];
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotion(move));
+    }
+}
@@ -0,0 +1,142 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree below a position. Comparing the
+ * counts against published reference values checks the move generator, and
+ * timing them measures its throughput.
+ * <p>
+ * Moves are played out on the game's own board and taken back again, so a
+ * game must not be used by anything else while it is being walked.
+ */
+public class Perft {
+    private final ChessGame game;
+    private final ChessBoard board;
+    private int[][] moveBuffers = new int[0][];
+
+    public Perft(ChessGame game) {
+        this.game = game;
+        this.board = game.getBoard();
+    }
+
+    /**
+     * @param depth how many plies to search
+     * @return the number of positions reachable in exactly {@code depth} plies
+     */
+    public long count(int depth) {
+        ensureBuffers(depth);
+        return count(game.getTeamTurn(), depth);
+    }
+
+    /**
+     * Breaks {@link #count(int)} down by root move, which makes it possible to
+     * narrow a wrong total down to the move whose subtree is off.
+     *
+     * @return node counts keyed by root move in coordinate notation, e.g. "e2e4"
+     */
+    public Map<String, Long> divide(int depth) {
+        ensureBuffers(depth);
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (depth < 1) {
+            return result;
+        }
+        ChessGame.TeamColor color = game.getTeamTurn();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.legalMoves(board, color, moves, 0);
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            ChessPiece piece = board.getPiece(MoveGenerator.from(move));
+            ChessPiece captured = play(move, piece);
+            result.put(notation(move), count(color.opponent(), depth - 1));
+            takeBack(move, piece, captured);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the nodes at a depth and times the search.
+     */
+    public Result run(int depth) {
+        long start = System.nanoTime();
+        long nodes = count(depth);
+        return new Result(depth, nodes, System.nanoTime() - start);
+    }
+
+    private long count(ChessGame.TeamColor color, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] moves = moveBuffers[depth - 1];
+        int count = MoveGenerator.legalMoves(board, color, moves, 0);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            ChessPiece piece = board.getPiece(MoveGenerator.from(move));
+            ChessPiece captured = play(move, piece);
+            nodes += count(color.opponent(), depth - 1);
+            takeBack(move, piece, captured);
+        }
+        return nodes;
+    }
+
+    private ChessPiece play(int move, ChessPiece piece) {
+        int to = MoveGenerator.to(move);
+        ChessPiece captured = board.getPiece(to);
+        ChessPiece.PieceType promotion = MoveGenerator.promotion(move);
+        board.setSquare(MoveGenerator.from(move), null);
+        board.setSquare(to, (promotion == null) ? piece : ChessPiece.of(piece.getTeamColor(), promotion));
+        return captured;
+    }
+
+    private void takeBack(int move, ChessPiece piece, ChessPiece captured) {
+        board.setSquare(MoveGenerator.to(move), captured);
+        board.setSquare(MoveGenerator.from(move), piece);
+    }
+
+    private void ensureBuffers(int depth) {
+        if (moveBuffers.length < depth) {
+            moveBuffers = new int[depth][MoveGenerator.MAX_MOVES];
+        }
+    }
+
+    private static String notation(int move) {
+        String result = ChessPosition.of(MoveGenerator.from(move)).toString() + ChessPosition.of(MoveGenerator.to(move));
+        ChessPiece.PieceType promotion = MoveGenerator.promotion(move);
+        if (promotion != null) {
+            result += ChessPiece.of(ChessGame.TeamColor.BLACK, promotion);
+        }
+        return result;
+    }
+
+    /**
+     * The outcome of a timed perft run
+     */
+    public record Result(int depth, long nodes, long nanos) {
+        public long nodesPerSecond() {
+            return (nanos == 0) ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+    }
+
+    /**
+     * Runs perft from the command line: {@code Perft <depth> [fen]}. Without a
+     * FEN the search starts from the standard opening position.
+     */
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 5;
+        ChessGame game = (args.length > 1) ? ChessGame.fromFen(String.join(" ", Arrays.copyOfRange(args, 1, args.length)))
+                : new ChessGame();
+        Perft perft = new Perft(game);
+        for (Map.Entry<String, Long> entry : perft.divide(depth).entrySet()) {
+            System.out.printf("%s: %d%n", entry.getKey(), entry.getValue());
+        }
+        Result result = perft.run(depth);
+        System.out.printf("%nDepth %d: %d nodes in %d ms (%d nodes/s)%n",
+                result.depth(), result.nodes(), result.nanos() / 1_000_000, result.nodesPerSecond());
+    }
+}
@@ -0,0 +1,102 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe cache of the legal moves and check status of
+ * positions, keyed by Zobrist key (see {@link ChessGame#positionKey()}).
+ * Entries are evicted least recently used first once the cache is full.
+ * <p>
+ * A lookup compares the cached bitboards with the board before using an entry,
+ * so two positions that happen to share a key never return each other's
+ * moves.
+ */
+public class PositionCache {
+    /**
+     * Number of positions kept when {@code chess.positionCache.size} is not set
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final Map<Long, Analysis> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PositionCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Cache capacity must not be negative: " + capacity);
+        }
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Analysis> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the legal moves and check status of a team on a board, computed
+     * and cached if the position has not been seen recently
+     */
+    Analysis analyze(ChessBoard board, ChessGame.TeamColor color) {
+        long key = board.key() ^ Zobrist.turn(color);
+        Analysis analysis;
+        synchronized (entries) {
+            analysis = entries.get(key);
+        }
+        if (analysis != null && board.hasPieces(analysis.pieces())) {
+            hits.increment();
+            return analysis;
+        }
+        misses.increment();
+        analysis = Analysis.of(board, color);
+        synchronized (entries) {
+            entries.put(key, analysis);
+        }
+        return analysis;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Everything the game needs to know about one team's options in a position.
+     * Moves are encoded as by {@link MoveGenerator#encode} and ordered by
+     * starting square.
+     */
+    record Analysis(long[] pieces, int[] moves, boolean inCheck) {
+        static Analysis of(ChessBoard board, ChessGame.TeamColor color) {
+            int[] buffer = new int[MoveGenerator.MAX_MOVES];
+            int count = MoveGenerator.legalMoves(board, color, buffer, 0);
+            long kings = board.pieces(color, ChessPiece.PieceType.KING);
+            boolean inCheck = kings != 0
+                    && MoveGenerator.isAttacked(board, Long.numberOfTrailingZeros(kings), color.opponent());
+            return new Analysis(board.copyPieces(), Arrays.copyOf(buffer, count), inCheck);
+        }
+
+        boolean hasMoves() {
+            return moves.length > 0;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of one key per
+ * piece on the board, plus {@link #BLACK_TO_MOVE} when black is to move, so
+ * placing or removing a piece updates the key with a single XOR.
+ * <p>
+ * The keys come from a fixed seed, which keeps them identical across runs and
+ * processes, so keys can be stored and compared between server restarts.
+ * Castling rights and en passant squares get keys of their own once the
+ * engine plays those moves.
+ */
+final class Zobrist {
+    private static final long SEED = 0x240C4E55L;
+
+    /**
+     * Indexed by piece index (see {@link ChessPiece#index()}) then square
+     */
+    static final long[][] PIECE_SQUARE = new long[ChessPiece.INDEX_COUNT][64];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < squares.length; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    static long turn(ChessGame.TeamColor turn) {
+        return (turn == ChessGame.TeamColor.BLACK) ? BLACK_TO_MOVE : 0;
+    }
+}
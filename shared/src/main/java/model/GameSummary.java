@@ -0,0 +1,12 @@
+package model;
+
+/**
+ * What a game listing shows about a game: its players and name, but not the
+ * game itself, so a listing's size does not depend on the games' state.
+ */
+public record GameSummary(int gameID, String whiteUsername, String blackUsername, String gameName) {
+
+    public static GameSummary of(GameData game) {
+        return new GameSummary(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName());
+    }
+}
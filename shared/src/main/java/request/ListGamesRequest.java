@@ -0,0 +1,14 @@
+package request;
+
+/**
+ * Asks for one page of the game list, as the query parameters of GET /game
+ *
+ * @param cursor   the {@code next} cursor of the previous page, or null for the first
+ * @param limit    the most games to return, or null for the server's default
+ * @param openSeat whether to list only games with a seat free
+ * @param player   if not null, list only games this user plays in
+ * @param status   if not null, "active" to list only games still being played
+ *                 or "finished" for those that have ended
+ */
+public record ListGamesRequest(String cursor, Integer limit, boolean openSeat, String player, String status) {
+}
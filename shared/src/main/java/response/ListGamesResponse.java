@@ -1,6 +1,14 @@
 package response;
 
-import model.GameData;
+import model.GameSummary;
 
-public record ListGamesResponse(GameData[] games) {
-}
\ No newline at end of file
+/**
+ * @param next for one page of the list, the cursor of the page after it, or
+ *             null if there are no more games
+ */
+public record ListGamesResponse(GameSummary[] games, String next) {
+
+    public ListGamesResponse(GameSummary[] games) {
+        this(games, null);
+    }
+}
@@ -0,0 +1,28 @@
+package serialization;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Reads enum constants for the streaming adapters the way Gson's reflection
+ * does: a JSON null, or a name the enum does not have, reads as null.
+ */
+public final class JsonEnums {
+
+    private JsonEnums() {
+    }
+
+    public static <E extends Enum<E>> E read(JsonReader in, Class<E> type) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, in.nextString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
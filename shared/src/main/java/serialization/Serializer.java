@@ -0,0 +1,24 @@
+package serialization;
+
+import chess.ChessTypeAdapters;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import websocket.commands.UserGameCommandAdapterFactory;
+import websocket.messages.ServerMessageAdapterFactory;
+
+/**
+ * The Gson instance shared by the server and client. Gson is thread safe and
+ * caches the adapter for each type it has seen, so one instance is built
+ * once instead of one per message. Games, moves and websocket messages are
+ * handled by streaming adapters rather than reflection; everything else,
+ * such as the HTTP requests and responses, falls back to reflection.
+ */
+public final class Serializer {
+    public static final Gson GSON = ChessTypeAdapters.register(new GsonBuilder())
+            .registerTypeAdapterFactory(new ServerMessageAdapterFactory())
+            .registerTypeAdapterFactory(new UserGameCommandAdapterFactory())
+            .create();
+
+    private Serializer() {
+    }
+}
@@ -0,0 +1,33 @@
+package websocket.commands;
+
+import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveMadeMessage;
+
+/**
+ * A CONNECT command that also says how the client wants games sent to it.
+ * A plain {@link UserGameCommand} connect gets {@link LoadGameMessage.Format#JSON},
+ * and the whole game again after every move. A client that asks for move
+ * updates gets a {@link MoveMadeMessage} after each move instead.
+ */
+public class ConnectCommand extends UserGameCommand {
+    private final LoadGameMessage.Format gameFormat;
+    private final Boolean moveUpdates;
+
+    public ConnectCommand(String authToken, Integer gameID, LoadGameMessage.Format gameFormat) {
+        this(authToken, gameID, gameFormat, false);
+    }
+
+    public ConnectCommand(String authToken, Integer gameID, LoadGameMessage.Format gameFormat, boolean moveUpdates) {
+        super(CommandType.CONNECT, authToken, gameID);
+        this.gameFormat = gameFormat;
+        this.moveUpdates = moveUpdates;
+    }
+
+    public LoadGameMessage.Format getGameFormat() {
+        return (gameFormat == null) ? LoadGameMessage.Format.JSON : gameFormat;
+    }
+
+    public boolean wantsMoveUpdates() {
+        return moveUpdates != null && moveUpdates;
+    }
+}
@@ -1,6 +1,6 @@
 package websocket.commands;
 
-import com.google.gson.Gson;
+import serialization.Serializer;
 
 import java.util.Objects;
 
@@ -28,7 +28,8 @@ public class UserGameCommand {
         CONNECT,
         MAKE_MOVE,
         LEAVE,
-        RESIGN
+        RESIGN,
+        RESYNC
     }
 
     public CommandType getCommandType() {
@@ -63,6 +64,6 @@ public class UserGameCommand {
     }
 
     public String toString() {
-        return new Gson().toJson(this);
+        return Serializer.GSON.toJson(this);
     }
 }
@@ -0,0 +1,126 @@
+package websocket.commands;
+
+import chess.ChessMove;
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import serialization.JsonEnums;
+import websocket.messages.LoadGameMessage;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Streaming Gson adapters for {@link UserGameCommand} and its subclasses,
+ * which write the same JSON as reflection: the subclass's fields followed by
+ * those of UserGameCommand. Reading a plain UserGameCommand gives the subclass
+ * its {@code commandType} calls for, so a command is parsed once, in one pass
+ * over the text, whichever order its fields come in.
+ */
+public class UserGameCommandAdapterFactory implements TypeAdapterFactory {
+    private static final Set<Class<?>> TYPES = Set.of(UserGameCommand.class, ConnectCommand.class,
+            MakeMoveCommand.class);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!TYPES.contains(type.getRawType())) {
+            return null;
+        }
+        return (TypeAdapter<T>) new Adapter(type.getRawType(), gson.getAdapter(ChessMove.class)).nullSafe();
+    }
+
+    private static final class Adapter extends TypeAdapter<UserGameCommand> {
+        private final Class<?> type;
+        private final TypeAdapter<ChessMove> moves;
+
+        Adapter(Class<?> type, TypeAdapter<ChessMove> moves) {
+            this.type = type;
+            this.moves = moves;
+        }
+
+        @Override
+        public void write(JsonWriter out, UserGameCommand command) throws IOException {
+            out.beginObject();
+            switch (command) {
+                case ConnectCommand connect -> {
+                    out.name("gameFormat").value(connect.getGameFormat().name());
+                    out.name("moveUpdates").value(connect.wantsMoveUpdates());
+                }
+                case MakeMoveCommand makeMove -> {
+                    if (makeMove.getMove() != null) {
+                        moves.write(out.name("move"), makeMove.getMove());
+                    }
+                }
+                default -> {
+                }
+            }
+            UserGameCommand.CommandType commandType = command.getCommandType();
+            out.name("commandType").value((commandType == null) ? null : commandType.name());
+            out.name("authToken").value(command.getAuthToken());
+            out.name("gameID").value(command.getGameID());
+            out.endObject();
+        }
+
+        /**
+         * Reports a value of the wrong kind, such as a gameID that is not a
+         * number, as bad JSON, as reflection would
+         */
+        @Override
+        public UserGameCommand read(JsonReader in) throws IOException {
+            try {
+                return readCommand(in);
+            } catch (NumberFormatException | IllegalStateException e) {
+                throw new JsonSyntaxException(e);
+            }
+        }
+
+        private UserGameCommand readCommand(JsonReader in) throws IOException {
+            UserGameCommand.CommandType commandType = null;
+            String authToken = null;
+            Integer gameID = null;
+            LoadGameMessage.Format gameFormat = null;
+            boolean moveUpdates = false;
+            ChessMove move = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "commandType" -> commandType = JsonEnums.read(in, UserGameCommand.CommandType.class);
+                    case "authToken" -> authToken = in.nextString();
+                    case "gameID" -> gameID = in.nextInt();
+                    case "gameFormat" -> gameFormat = JsonEnums.read(in, LoadGameMessage.Format.class);
+                    case "moveUpdates" -> moveUpdates = in.nextBoolean();
+                    case "move" -> move = moves.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            Class<?> type = (this.type == UserGameCommand.class) ? classFor(commandType) : this.type;
+            if (type == ConnectCommand.class) {
+                return new ConnectCommand(authToken, gameID, gameFormat, moveUpdates);
+            } else if (type == MakeMoveCommand.class) {
+                return new MakeMoveCommand(commandType, authToken, gameID, move);
+            }
+            return new UserGameCommand(commandType, authToken, gameID);
+        }
+    }
+
+    private static Class<?> classFor(UserGameCommand.CommandType commandType) {
+        if (commandType == UserGameCommand.CommandType.CONNECT) {
+            return ConnectCommand.class;
+        } else if (commandType == UserGameCommand.CommandType.MAKE_MOVE) {
+            return MakeMoveCommand.class;
+        }
+        return UserGameCommand.class;
+    }
+}
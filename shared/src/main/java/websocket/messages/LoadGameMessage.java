@@ -2,15 +2,76 @@ package websocket.messages;
 
 import chess.ChessGame;
 
+/**
+ * Carries the current state of a game. By default the whole game is sent as
+ * JSON; a client that connected asking for {@link Format#FEN} receives just
+ * the position in Forsyth-Edwards Notation instead, along with whether the
+ * game is over and how many moves have been made, which FEN does not record.
+ */
 public class LoadGameMessage extends ServerMessage {
     private final ChessGame game;
+    private final String fen;
+    private final Boolean over;
+    private final Integer ply;
+
+    /**
+     * How a client wants games to be sent to it
+     */
+    public enum Format {
+        JSON,
+        FEN
+    }
 
     public LoadGameMessage(ChessGame game) {
+        this(game, Format.JSON);
+    }
+
+    public LoadGameMessage(ChessGame game, Format format) {
+        this((format == Format.FEN) ? null : game, (format == Format.FEN) ? game.toFen() : null,
+                (format == Format.FEN) ? game.isOver() : null, (format == Format.FEN) ? game.getPly() : null);
+    }
+
+    LoadGameMessage(ChessGame game, String fen, Boolean over, Integer ply) {
         super(ServerMessageType.LOAD_GAME);
         this.game = game;
+        this.fen = fen;
+        this.over = over;
+        this.ply = ply;
     }
 
-    public ChessGame getChessGame() {
+    /**
+     * @return the game as sent, or null if it was sent as FEN
+     */
+    ChessGame game() {
         return game;
     }
-}
\ No newline at end of file
+
+    String fen() {
+        return fen;
+    }
+
+    Boolean over() {
+        return over;
+    }
+
+    Integer ply() {
+        return ply;
+    }
+
+    /**
+     * @return the game, rebuilt from its FEN if it was sent in that form
+     */
+    public ChessGame getChessGame() {
+        if (game != null || fen == null) {
+            return game;
+        }
+        ChessGame rebuilt = ChessGame.fromFen(fen);
+        if (over != null) {
+            rebuilt.setOver(over);
+        }
+        if (ply != null) {
+            rebuilt.setPly(ply);
+        }
+        return rebuilt;
+    }
+}
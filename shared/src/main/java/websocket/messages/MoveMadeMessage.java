@@ -0,0 +1,88 @@
+package websocket.messages;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+
+/**
+ * Tells a client that a move was made, instead of sending the whole game
+ * again. The client plays the move on its own copy of the game and compares
+ * the result with the server's position key; a mismatch means an update was
+ * missed, and the client asks for the whole game with a RESYNC command.
+ * Only clients that connected asking for move updates receive these.
+ */
+public class MoveMadeMessage extends ServerMessage {
+    private final ChessMove move;
+    private final int ply;
+    private final long positionKey;
+    private final Status status;
+
+    /**
+     * The state of the game after the move
+     */
+    public enum Status {
+        PLAYING,
+        CHECK,
+        CHECKMATE,
+        STALEMATE
+    }
+
+    /**
+     * @param move   the move just made
+     * @param game   the game after the move
+     * @param status whether the move left the opponent in check, or ended the
+     *               game
+     */
+    public MoveMadeMessage(ChessMove move, ChessGame game, Status status) {
+        this(move, game.getPly(), game.positionKey(), status);
+    }
+
+    MoveMadeMessage(ChessMove move, int ply, long positionKey, Status status) {
+        super(ServerMessageType.MOVE_MADE);
+        this.move = move;
+        this.ply = ply;
+        this.positionKey = positionKey;
+        this.status = status;
+    }
+
+    public ChessMove getMove() {
+        return move;
+    }
+
+    /**
+     * @return the number of moves made in the game, counting this one
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    public long getPositionKey() {
+        return positionKey;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Plays the move on the client's copy of the game
+     *
+     * @param game the game as last sent by the server
+     * @return false if the move could not be played or led to a different
+     * position than on the server, in which case the game may have been
+     * changed and should be loaded again
+     */
+    public boolean applyTo(ChessGame game) {
+        try {
+            game.makeMove(move);
+        } catch (InvalidMoveException e) {
+            return false;
+        }
+        if (game.positionKey() != positionKey) {
+            return false;
+        }
+        game.setPly(ply);
+        game.setOver(status == Status.CHECKMATE || status == Status.STALEMATE);
+        return true;
+    }
+}
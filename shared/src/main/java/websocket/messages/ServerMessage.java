@@ -1,6 +1,6 @@
 package websocket.messages;
 
-import com.google.gson.Gson;
+import serialization.Serializer;
 
 import java.util.Objects;
 
@@ -16,7 +16,8 @@ public class ServerMessage {
     public enum ServerMessageType {
         LOAD_GAME,
         ERROR,
-        NOTIFICATION
+        NOTIFICATION,
+        MOVE_MADE
     }
 
     public ServerMessage(ServerMessageType type) {
@@ -45,6 +46,6 @@ public class ServerMessage {
     }
 
     public String toString() {
-        return new Gson().toJson(this);
+        return Serializer.GSON.toJson(this);
     }
 }
@@ -0,0 +1,157 @@
+package websocket.messages;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import serialization.JsonEnums;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Streaming Gson adapters for {@link ServerMessage} and its subclasses, which
+ * write the same JSON as reflection: the subclass's fields followed by
+ * {@code serverMessageType}. Reading a plain ServerMessage gives the subclass
+ * its {@code serverMessageType} calls for, so a message is parsed once, in one
+ * pass over the text, whichever order its fields come in.
+ */
+public class ServerMessageAdapterFactory implements TypeAdapterFactory {
+    private static final Set<Class<?>> TYPES = Set.of(ServerMessage.class, ErrorMessage.class,
+            NotificationMessage.class, LoadGameMessage.class, MoveMadeMessage.class);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!TYPES.contains(type.getRawType())) {
+            return null;
+        }
+        return (TypeAdapter<T>) new Adapter(type.getRawType(), gson.getAdapter(ChessGame.class),
+                gson.getAdapter(ChessMove.class)).nullSafe();
+    }
+
+    private static final class Adapter extends TypeAdapter<ServerMessage> {
+        private final Class<?> type;
+        private final TypeAdapter<ChessGame> games;
+        private final TypeAdapter<ChessMove> moves;
+
+        Adapter(Class<?> type, TypeAdapter<ChessGame> games, TypeAdapter<ChessMove> moves) {
+            this.type = type;
+            this.games = games;
+            this.moves = moves;
+        }
+
+        @Override
+        public void write(JsonWriter out, ServerMessage message) throws IOException {
+            out.beginObject();
+            switch (message) {
+                case ErrorMessage error -> out.name("errorMessage").value(error.getErrorMessage());
+                case NotificationMessage notification -> out.name("message").value(notification.getMessage());
+                case LoadGameMessage loadGame -> {
+                    if (loadGame.game() != null) {
+                        games.write(out.name("game"), loadGame.game());
+                    }
+                    out.name("fen").value(loadGame.fen());
+                    out.name("over").value(loadGame.over());
+                    out.name("ply").value(loadGame.ply());
+                }
+                case MoveMadeMessage moveMade -> {
+                    if (moveMade.getMove() != null) {
+                        moves.write(out.name("move"), moveMade.getMove());
+                    }
+                    out.name("ply").value(moveMade.getPly());
+                    out.name("positionKey").value(moveMade.getPositionKey());
+                    MoveMadeMessage.Status status = moveMade.getStatus();
+                    out.name("status").value((status == null) ? null : status.name());
+                }
+                default -> {
+                }
+            }
+            ServerMessage.ServerMessageType messageType = message.getServerMessageType();
+            out.name("serverMessageType").value((messageType == null) ? null : messageType.name());
+            out.endObject();
+        }
+
+        /**
+         * A field holding the wrong kind of value, say a ply that is not a
+         * number, is a JsonSyntaxException here just as it is for Gson's own
+         * adapters
+         */
+        @Override
+        public ServerMessage read(JsonReader in) throws IOException {
+            try {
+                return readMessage(in);
+            } catch (NumberFormatException | IllegalStateException e) {
+                throw new JsonSyntaxException(e);
+            }
+        }
+
+        private ServerMessage readMessage(JsonReader in) throws IOException {
+            ServerMessage.ServerMessageType messageType = null;
+            String errorMessage = null;
+            String text = null;
+            ChessGame game = null;
+            String fen = null;
+            ChessMove move = null;
+            Boolean over = null;
+            Integer ply = null;
+            long positionKey = 0;
+            MoveMadeMessage.Status status = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "serverMessageType" -> messageType = JsonEnums.read(in, ServerMessage.ServerMessageType.class);
+                    case "errorMessage" -> errorMessage = in.nextString();
+                    case "message" -> text = in.nextString();
+                    case "game" -> game = games.read(in);
+                    case "fen" -> fen = in.nextString();
+                    case "over" -> over = in.nextBoolean();
+                    case "move" -> move = moves.read(in);
+                    case "ply" -> ply = in.nextInt();
+                    case "positionKey" -> positionKey = in.nextLong();
+                    case "status" -> status = JsonEnums.read(in, MoveMadeMessage.Status.class);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            Class<?> type = (this.type == ServerMessage.class) ? classFor(messageType) : this.type;
+            ServerMessage message;
+            if (type == ErrorMessage.class) {
+                message = new ErrorMessage(errorMessage);
+            } else if (type == NotificationMessage.class) {
+                message = new NotificationMessage(text);
+            } else if (type == LoadGameMessage.class) {
+                message = new LoadGameMessage(game, fen, over, ply);
+            } else if (type == MoveMadeMessage.class) {
+                message = new MoveMadeMessage(move, (ply == null) ? 0 : ply, positionKey, status);
+            } else {
+                return new ServerMessage(messageType);
+            }
+            message.serverMessageType = messageType;
+            return message;
+        }
+    }
+
+    private static Class<?> classFor(ServerMessage.ServerMessageType messageType) {
+        if (messageType == null) {
+            return ServerMessage.class;
+        }
+        return switch (messageType) {
+            case LOAD_GAME -> LoadGameMessage.class;
+            case ERROR -> ErrorMessage.class;
+            case NOTIFICATION -> NotificationMessage.class;
+            case MOVE_MADE -> MoveMadeMessage.class;
+        };
+    }
+}
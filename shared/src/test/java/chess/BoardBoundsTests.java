@@ -0,0 +1,40 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardBoundsTests {
+    private static final ChessPosition[] OFF_BOARD = {
+            new ChessPosition(1, 9), new ChessPosition(9, 1), new ChessPosition(0, 1),
+            new ChessPosition(1, 0), new ChessPosition(-1, 4), new ChessPosition(4, 12),
+    };
+
+    @Test
+    @DisplayName("Off-Board Squares Rejected")
+    public void offBoardBoard() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard before = board.copy();
+        for (ChessPosition position : OFF_BOARD) {
+            assertThrows(IllegalArgumentException.class, () -> board.getPiece(position));
+            assertThrows(IllegalArgumentException.class, () -> board.addPiece(position,
+                    new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN)));
+        }
+        assertEquals(before, board);
+    }
+
+    @Test
+    @DisplayName("Off-Board Moves Rejected")
+    public void offBoardGame() {
+        ChessGame game = new ChessGame();
+        ChessBoard before = game.getBoard().copy();
+        for (ChessPosition position : OFF_BOARD) {
+            assertThrows(IllegalArgumentException.class, () -> game.validMoves(position));
+            assertThrows(InvalidMoveException.class,
+                    () -> game.makeMove(new ChessMove(new ChessPosition(2, 1), position, null)));
+        }
+        assertEquals(before, game.getBoard());
+    }
+}
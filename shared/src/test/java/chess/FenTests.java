@@ -0,0 +1,53 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FenTests {
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    @Test
+    @DisplayName("Starting Position")
+    public void startingPosition() {
+        assertEquals(START, new ChessGame().toFen());
+        ChessGame game = ChessGame.fromFen(START);
+        assertEquals(new ChessGame().getBoard(), game.getBoard());
+        assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Round Trip After Moves")
+    public void roundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1", game.toFen());
+
+        ChessGame loaded = ChessGame.fromFen(game.toFen());
+        assertEquals(game.getBoard(), loaded.getBoard());
+        assertEquals(game.positionKey(), loaded.positionKey());
+    }
+
+    @Test
+    @DisplayName("Optional Fields")
+    public void optionalFields() {
+        assertEquals(ChessGame.TeamColor.WHITE, ChessGame.fromFen("8/8/8/8/8/8/8/K6k").getTeamTurn());
+        ChessGame game = ChessGame.fromFen("8/8/8/8/8/8/8/K6k b KQkq e3 12 40");
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING),
+                game.getBoard().getPiece(new ChessPosition(1, 8)));
+    }
+
+    @Test
+    @DisplayName("Reject Malformed FEN")
+    public void malformed() {
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(""));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8 w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("9/8/8/8/8/8/8/8 w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/7kk w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/7x w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 x"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 white"));
+    }
+}
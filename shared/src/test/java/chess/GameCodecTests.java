@@ -0,0 +1,63 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameCodecTests {
+
+    @Test
+    @DisplayName("Round Trip Starting Position")
+    public void startingPosition() {
+        ChessGame game = new ChessGame();
+        byte[] bytes = GameCodec.encode(game);
+        assertEquals(GameCodec.LENGTH, bytes.length);
+
+        ChessGame decoded = GameCodec.decode(bytes);
+        assertEquals(game.getBoard(), decoded.getBoard());
+        assertEquals(ChessGame.TeamColor.WHITE, decoded.getTeamTurn());
+        assertFalse(decoded.isOver());
+    }
+
+    @Test
+    @DisplayName("Round Trip Turn, Over Flag and Promotion")
+    public void flagsAndPromotion() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(8, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        board.addPiece(new ChessPosition(1, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(1, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        game.setOver(true);
+
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+        assertEquals(board, decoded.getBoard());
+        assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+        assertTrue(decoded.isOver());
+        assertEquals(game.positionKey(), decoded.positionKey());
+    }
+
+    @Test
+    @DisplayName("Reject Malformed Bytes")
+    public void malformed() {
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode("{\"turn\":\"WHITE\"}".getBytes()));
+        byte[] badPiece = GameCodec.encode(new ChessGame());
+        badPiece[2] = (byte) 0xFF;
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(badPiece));
+    }
+
+    @Test
+    @DisplayName("Round Trip Moves")
+    public void moves() {
+        ChessMove quiet = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessMove promotion = new ChessMove(new ChessPosition(7, 8), new ChessPosition(8, 8), ChessPiece.PieceType.KNIGHT);
+        assertEquals(quiet, GameCodec.decodeMove(GameCodec.encodeMove(quiet)));
+        assertEquals(promotion, GameCodec.decodeMove(GameCodec.encodeMove(promotion)));
+        assertTrue(GameCodec.encodeMove(promotion) <= Short.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decodeMove(0x7 << 12));
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decodeMove(-1));
+    }
+}
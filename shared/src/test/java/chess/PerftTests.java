@@ -0,0 +1,96 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reference node counts from the chess programming community's perft tables.
+ * Positions and depths are limited to ones where castling and en passant never
+ * come up, since this engine does not play either move.
+ */
+public class PerftTests {
+
+    @Test
+    @DisplayName("Starting Position")
+    public void startingPosition() {
+        Perft perft = new Perft(new ChessGame());
+        assertEquals(20, perft.count(1));
+        assertEquals(400, perft.count(2));
+        assertEquals(8902, perft.count(3));
+        assertEquals(197281, perft.count(4));
+    }
+
+    @Test
+    @DisplayName("Divide Starting Position")
+    public void divideStartingPosition() {
+        Map<String, Long> divide = new Perft(new ChessGame()).divide(2);
+        assertEquals(20, divide.size());
+        for (long nodes : divide.values()) {
+            assertEquals(20, nodes);
+        }
+    }
+
+    @Test
+    @DisplayName("Perft Leaves Board Untouched")
+    public void boardRestored() {
+        ChessGame game = new ChessGame();
+        ChessBoard expected = new ChessBoard();
+        expected.resetBoard();
+        new Perft(game).count(3);
+        assertEquals(expected, game.getBoard());
+    }
+
+    @Test
+    @DisplayName("Rook and Pawn Endgame")
+    public void rookAndPawnEndgame() {
+        Perft perft = new Perft(ChessGame.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"));
+        assertEquals(14, perft.count(1));
+        assertEquals(191, perft.count(2));
+    }
+
+    @Test
+    @DisplayName("Discovered Check")
+    public void discoveredCheck() {
+        assertEquals(1004658, new Perft(ChessGame.fromFen("8/8/1P2K3/8/2n5/1q6/8/5k2 b - - 0 1")).count(5));
+    }
+
+    @Test
+    @DisplayName("Promote Out of Check")
+    public void promoteOutOfCheck() {
+        assertEquals(3821001, new Perft(ChessGame.fromFen("2K2r2/4P3/8/8/8/8/8/3k4 w - - 0 1")).count(6));
+    }
+
+    @Test
+    @DisplayName("Promote to Give Check")
+    public void promoteToGiveCheck() {
+        assertEquals(217342, new Perft(ChessGame.fromFen("4k3/1P6/8/8/8/8/K7/8 w - - 0 1")).count(6));
+    }
+
+    @Test
+    @DisplayName("Underpromote to Check")
+    public void underpromoteToCheck() {
+        assertEquals(92683, new Perft(ChessGame.fromFen("8/P1k5/K7/8/8/8/8/8 w - - 0 1")).count(6));
+    }
+
+    @Test
+    @DisplayName("Self Stalemate")
+    public void selfStalemate() {
+        assertEquals(2217, new Perft(ChessGame.fromFen("K1k5/8/P7/8/8/8/8/8 w - - 0 1")).count(6));
+    }
+
+    @Test
+    @DisplayName("Stalemate and Checkmate")
+    public void stalemateAndCheckmate() {
+        assertEquals(567584, new Perft(ChessGame.fromFen("8/k1P5/8/1K6/8/8/8/8 w - - 0 1")).count(7));
+    }
+
+    @Test
+    @DisplayName("Double Check")
+    public void doubleCheck() {
+        assertEquals(23527, new Perft(ChessGame.fromFen("8/8/2k5/5q2/5n2/8/5K2/8 b - - 0 1")).count(4));
+    }
+}
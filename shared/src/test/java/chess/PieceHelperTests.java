@@ -0,0 +1,34 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("deprecation")
+public class PieceHelperTests {
+
+    @Test
+    @DisplayName("Helpers Agree with Move Generator")
+    public void helpersAgree() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        ChessBoard board = game.getBoard();
+
+        ChessPiece pawn = board.getPiece(new ChessPosition(4, 5));
+        assertEquals(pawn.pieceMoves(board, new ChessPosition(4, 5)), pawn.getPawnMoves(board, new ChessPosition(4, 5)));
+        ChessPosition bishopAt = new ChessPosition(1, 6);
+        ChessPiece bishop = board.getPiece(bishopAt);
+        int[][] diagonals = {{1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
+        assertEquals(bishop.pieceMoves(board, bishopAt), bishop.calculateMoves(board, bishopAt, diagonals, 7));
+
+        assertTrue(pawn.isEnemyOwned(board, new ChessPosition(5, 4)));
+        assertTrue(pawn.isEmpty(board, new ChessPosition(5, 5)));
+        assertTrue(pawn.isValidTarget(board, new ChessPosition(5, 4)));
+        assertFalse(pawn.isValidTarget(board, new ChessPosition(1, 1)));
+        assertTrue(pawn.outOfBounds(new ChessPosition(1, 9)));
+        assertFalse(pawn.isEmpty(board, new ChessPosition(9, 1)));
+        assertFalse(pawn.isEnemyOwned(board, new ChessPosition(0, 4)));
+    }
+}
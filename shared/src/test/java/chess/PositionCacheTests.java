@@ -0,0 +1,74 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionCacheTests {
+
+    @Test
+    @DisplayName("Repeated Position Hits Cache")
+    public void repeatedPosition() {
+        PositionCache cache = new PositionCache(16);
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        PositionCache.Analysis first = cache.analyze(board, ChessGame.TeamColor.WHITE);
+        PositionCache.Analysis second = cache.analyze(board, ChessGame.TeamColor.WHITE);
+
+        assertSame(first, second);
+        assertEquals(20, first.moves().length);
+        assertFalse(first.inCheck());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    @DisplayName("Teams Cached Separately")
+    public void teamsSeparate() {
+        PositionCache cache = new PositionCache(16);
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        cache.analyze(board, ChessGame.TeamColor.WHITE);
+        PositionCache.Analysis black = cache.analyze(board, ChessGame.TeamColor.BLACK);
+
+        assertEquals(0, cache.hits());
+        assertEquals(2, cache.size());
+        for (int move : black.moves()) {
+            assertEquals(ChessGame.TeamColor.BLACK, board.getPiece(MoveGenerator.from(move)).getTeamColor());
+        }
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Position Evicted")
+    public void eviction() throws InvalidMoveException {
+        PositionCache cache = new PositionCache(1);
+        ChessGame game = new ChessGame();
+        cache.analyze(game.getBoard(), ChessGame.TeamColor.WHITE);
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        cache.analyze(game.getBoard(), ChessGame.TeamColor.BLACK);
+
+        assertEquals(1, cache.size());
+        ChessBoard start = new ChessBoard();
+        start.resetBoard();
+        cache.analyze(start, ChessGame.TeamColor.WHITE);
+        assertEquals(0, cache.hits());
+    }
+
+    @Test
+    @DisplayName("Changed Board Not Served Stale Moves")
+    public void changedBoard() {
+        PositionCache cache = new PositionCache(16);
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        cache.analyze(board, ChessGame.TeamColor.WHITE);
+
+        board.addPiece(new ChessPosition(2, 5), null);
+        PositionCache.Analysis analysis = cache.analyze(board, ChessGame.TeamColor.WHITE);
+
+        assertEquals(0, cache.hits());
+        assertTrue(analysis.moves().length > 20);
+    }
+}
@@ -0,0 +1,80 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Same Position Reached by Different Move Orders")
+    public void transposition() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        first.makeMove(move("g1", "f3"));
+        first.makeMove(move("g8", "f6"));
+        first.makeMove(move("b1", "c3"));
+
+        ChessGame second = new ChessGame();
+        second.makeMove(move("b1", "c3"));
+        second.makeMove(move("g8", "f6"));
+        second.makeMove(move("g1", "f3"));
+
+        assertEquals(first.positionKey(), second.positionKey());
+        assertEquals(first.getBoard().hashCode(), second.getBoard().hashCode());
+    }
+
+    @Test
+    @DisplayName("Incremental Key Matches Recomputed Key")
+    public void incrementalMatchesFresh() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.positionKey();
+        game.makeMove(move("e2", "e4"));
+        game.makeMove(move("d7", "d5"));
+        game.makeMove(move("e4", "d5"));
+
+        ChessBoard copy = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            copy.setSquare(square, game.getBoard().getPiece(square));
+        }
+        assertEquals(copy.key(), game.getBoard().key());
+    }
+
+    @Test
+    @DisplayName("Side to Move Changes Key")
+    public void sideToMove() {
+        ChessGame game = new ChessGame();
+        long whiteToMove = game.positionKey();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertNotEquals(whiteToMove, game.positionKey());
+        assertEquals(game.getBoard().key(), whiteToMove);
+    }
+
+    @Test
+    @DisplayName("Key Restored After Perft")
+    public void restoredAfterPerft() {
+        ChessGame game = new ChessGame();
+        long key = game.positionKey();
+        new Perft(game).count(3);
+        assertEquals(key, game.positionKey());
+    }
+
+    @Test
+    @DisplayName("Key Survives Serialization")
+    public void serialization() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move("e2", "e4"));
+        long key = game.positionKey();
+        ChessGame copy = new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+        assertEquals(key, copy.positionKey());
+    }
+
+    private static ChessMove move(String from, String to) {
+        return new ChessMove(position(from), position(to), null);
+    }
+
+    private static ChessPosition position(String square) {
+        return new ChessPosition(square.charAt(1) - '0', square.charAt(0) - 'a' + 1);
+    }
+}
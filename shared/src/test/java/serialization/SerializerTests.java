@@ -0,0 +1,200 @@
+package serialization;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import websocket.commands.ConnectCommand;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ErrorMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveMadeMessage;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SerializerTests {
+    private static final Gson REFLECTIVE = new Gson();
+
+    @Test
+    @DisplayName("Same JSON as Reflection")
+    public void sameJson() throws InvalidMoveException {
+        ChessGame game = playedGame();
+        ChessMove move = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN);
+        Object[] values = {
+                game,
+                move,
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT),
+                new LoadGameMessage(game),
+                new LoadGameMessage(game, LoadGameMessage.Format.FEN),
+                new NotificationMessage("white made a move"),
+                new ErrorMessage("Error: unauthorized."),
+                new MoveMadeMessage(move, game, MoveMadeMessage.Status.CHECK),
+                new UserGameCommand(UserGameCommand.CommandType.LEAVE, "token", 3),
+                new MakeMoveCommand(UserGameCommand.CommandType.MAKE_MOVE, "token", 3, move),
+                new ConnectCommand("token", 3, LoadGameMessage.Format.FEN, true),
+        };
+        for (Object value : values) {
+            assertEquals(REFLECTIVE.toJson(value), Serializer.GSON.toJson(value));
+        }
+    }
+
+    @Test
+    @DisplayName("Reads Reflective JSON")
+    public void readsReflective() throws InvalidMoveException {
+        ChessGame game = playedGame();
+        game.setOver(true);
+        ChessGame read = Serializer.GSON.fromJson(REFLECTIVE.toJson(game), ChessGame.class);
+        assertEquals(game.getBoard(), read.getBoard());
+        assertEquals(game.getTeamTurn(), read.getTeamTurn());
+        assertEquals(game.positionKey(), read.positionKey());
+        assertEquals(game.getPly(), read.getPly());
+        assertTrue(read.isOver());
+
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        String json = REFLECTIVE.toJson(new MakeMoveCommand(UserGameCommand.CommandType.MAKE_MOVE, "token", 3, move));
+        MakeMoveCommand command = Serializer.GSON.fromJson(json, MakeMoveCommand.class);
+        assertEquals(move, command.getMove());
+        assertEquals("token", command.getAuthToken());
+        assertEquals(3, command.getGameID());
+        assertEquals(UserGameCommand.CommandType.MAKE_MOVE,
+                Serializer.GSON.fromJson(json, UserGameCommand.class).getCommandType());
+    }
+
+    @Test
+    @DisplayName("Board Keeps Grid JSON")
+    public void boardGrid() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        StringBuilder grid = new StringBuilder("{\"grid\":[");
+        for (int row = 1; row <= 8; row++) {
+            grid.append(row == 1 ? "[" : ",[");
+            for (int col = 1; col <= 8; col++) {
+                grid.append(col == 1 ? "" : ",");
+                grid.append(row == 1 && col == 5 ? "{\"pieceColor\":\"WHITE\",\"type\":\"KING\"}" : "null");
+            }
+            grid.append("]");
+        }
+        grid.append("]}");
+        assertEquals(grid.toString(), REFLECTIVE.toJson(board));
+        assertEquals(grid.toString(), Serializer.GSON.toJson(board));
+        assertEquals(board, REFLECTIVE.fromJson(grid.toString(), ChessBoard.class));
+
+        long king = 1L << ChessBoard.square(1, 5);
+        String bitboards = "{\"pieces\":[" + king + ",0,0,0,0,0,0,0,0,0,0,0],\"colors\":[" + king + ",0],"
+                + "\"occupied\":" + king + "}";
+        assertEquals(board, Serializer.GSON.fromJson(bitboards, ChessBoard.class));
+    }
+
+    @Test
+    @DisplayName("Messages Round Trip")
+    public void messagesRoundTrip() throws InvalidMoveException {
+        ChessGame game = playedGame();
+        game.setOver(true);
+        String fen = new LoadGameMessage(game, LoadGameMessage.Format.FEN).toString();
+        assertEquals(ServerMessage.ServerMessageType.LOAD_GAME,
+                Serializer.GSON.fromJson(fen, ServerMessage.class).getServerMessageType());
+        ChessGame fromFen = Serializer.GSON.fromJson(fen, LoadGameMessage.class).getChessGame();
+        assertEquals(game.getBoard(), fromFen.getBoard());
+        assertEquals(2, fromFen.getPly());
+        assertTrue(fromFen.isOver());
+        game.setOver(false);
+
+        ChessMove move = new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null);
+        MoveMadeMessage moveMade = new MoveMadeMessage(move, game, MoveMadeMessage.Status.PLAYING);
+        MoveMadeMessage read = Serializer.GSON.fromJson(moveMade.toString(), MoveMadeMessage.class);
+        assertEquals(moveMade, read);
+        assertEquals(move, read.getMove());
+        assertEquals(game.positionKey(), read.getPositionKey());
+        assertEquals(MoveMadeMessage.Status.PLAYING, read.getStatus());
+
+        ErrorMessage error = Serializer.GSON.fromJson(new ErrorMessage("Error: bad").toString(), ErrorMessage.class);
+        assertEquals("Error: bad", error.getErrorMessage());
+        ConnectCommand connect = Serializer.GSON.fromJson(
+                new ConnectCommand("token", 3, LoadGameMessage.Format.FEN, true).toString(), ConnectCommand.class);
+        assertEquals(LoadGameMessage.Format.FEN, connect.getGameFormat());
+        assertTrue(connect.wantsMoveUpdates());
+    }
+
+    @Test
+    @DisplayName("Commands Parsed by Type")
+    public void commandsByType() {
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        UserGameCommand command = Serializer.GSON.fromJson(
+                "{\"move\":" + REFLECTIVE.toJson(move) + ",\"authToken\":\"token\",\"commandType\":\"MAKE_MOVE\",\"gameID\":3}",
+                UserGameCommand.class);
+        assertInstanceOf(MakeMoveCommand.class, command);
+        assertEquals(move, ((MakeMoveCommand) command).getMove());
+        assertEquals(3, command.getGameID());
+
+        command = Serializer.GSON.fromJson("{\"commandType\":\"CONNECT\",\"authToken\":\"token\",\"gameID\":3}",
+                UserGameCommand.class);
+        assertInstanceOf(ConnectCommand.class, command);
+        assertEquals(LoadGameMessage.Format.JSON, ((ConnectCommand) command).getGameFormat());
+
+        command = Serializer.GSON.fromJson(new UserGameCommand(UserGameCommand.CommandType.RESIGN, "token", 3).toString(),
+                UserGameCommand.class);
+        assertSame(UserGameCommand.class, command.getClass());
+        assertEquals(UserGameCommand.CommandType.RESIGN, command.getCommandType());
+    }
+
+    @Test
+    @DisplayName("Messages Parsed by Type")
+    public void messagesByType() {
+        ServerMessage message = Serializer.GSON.fromJson(new NotificationMessage("hello").toString(), ServerMessage.class);
+        assertEquals("hello", ((NotificationMessage) message).getMessage());
+        message = Serializer.GSON.fromJson(new ErrorMessage("Error: bad").toString(), ServerMessage.class);
+        assertEquals("Error: bad", ((ErrorMessage) message).getErrorMessage());
+        message = Serializer.GSON.fromJson(new LoadGameMessage(new ChessGame()).toString(), ServerMessage.class);
+        assertEquals(new ChessGame().getBoard(), ((LoadGameMessage) message).getChessGame().getBoard());
+    }
+
+    @Test
+    @DisplayName("Malformed Values Rejected")
+    public void malformedValues() {
+        TypeAdapter<UserGameCommand> commands = Serializer.GSON.getAdapter(UserGameCommand.class);
+        for (String gameID : new String[] {"\"abc\"", "{}", "1.5"}) {
+            String json = "{\"commandType\":\"LEAVE\",\"authToken\":\"token\",\"gameID\":" + gameID + "}";
+            assertThrows(JsonSyntaxException.class, () -> commands.fromJson(json));
+            assertThrows(JsonSyntaxException.class, () -> Serializer.GSON.fromJson(json, UserGameCommand.class));
+        }
+        TypeAdapter<ServerMessage> messages = Serializer.GSON.getAdapter(ServerMessage.class);
+        for (String ply : new String[] {"\"abc\"", "[]"}) {
+            String json = "{\"serverMessageType\":\"MOVE_MADE\",\"ply\":" + ply + "}";
+            assertThrows(JsonSyntaxException.class, () -> messages.fromJson(json));
+            assertThrows(JsonSyntaxException.class, () -> Serializer.GSON.fromJson(json, ServerMessage.class));
+        }
+    }
+
+    @Test
+    @DisplayName("Enums Read Like Reflection")
+    public void enums() throws IOException {
+        for (String json : new String[] {"null", "\"BOGUS\"", "\"FEN\""}) {
+            assertEquals(REFLECTIVE.fromJson(json, LoadGameMessage.Format.class),
+                    JsonEnums.read(new JsonReader(new StringReader(json)), LoadGameMessage.Format.class));
+        }
+        ConnectCommand connect = Serializer.GSON.fromJson(
+                "{\"commandType\":\"CONNECT\",\"gameFormat\":\"BOGUS\",\"gameID\":3}", ConnectCommand.class);
+        assertEquals(LoadGameMessage.Format.JSON, connect.getGameFormat());
+    }
+
+    private static ChessGame playedGame() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        return game;
+    }
+}